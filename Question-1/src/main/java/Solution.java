@@ -1,4 +1,8 @@
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 
 class Solution {
@@ -13,15 +17,84 @@ class Solution {
      */
 
     public static int numberOfTokens(int expiryLimit, List<List<Integer>> commands) {
-        Map<Integer, Long> tokenExpiryMap = new HashMap<>();
+        TokenStore tokens = new TokenStore(expiryLimit);
 
-        long maxTime = 0;
+        for (List<Integer> command : commands) {
+            tokens.apply(command.get(0), command.get(1), command.get(2));
+        }
+
+        return tokens.activeTokens();
+    }
+
+    /*
+     * Same as numberOfTokens, for commands that are only nearly sorted by T.
+     *
+     * Commands wait in a min-heap ordered by T (then arrival) and are applied once T <= watermark,
+     * where watermark = highest T seen so far - maxLateness. The heap only holds the commands of the
+     * last maxLateness time units, so this takes O(n log w) time and O(w) memory instead of sorting
+     * the whole batch. A command arriving with T below the watermark can no longer be put in order;
+     * it is dropped and counted in Result.lateCommands.
+     */
+    public static Result numberOfTokens(int expiryLimit, List<List<Integer>> commands, int maxLateness) {
+        if (maxLateness < 0) {
+            throw new IllegalArgumentException("maxLateness must not be negative: " + maxLateness);
+        }
+
+        TokenStore tokens = new TokenStore(expiryLimit);
+        PriorityQueue<PendingCommand> reorderBuffer = new PriorityQueue<>(
+                Comparator.comparingLong(PendingCommand::time).thenComparingLong(PendingCommand::sequence));
+        long maxSeenTime = Long.MIN_VALUE;
+        long sequence = 0;
+        int lateCommands = 0;
 
         for (List<Integer> command : commands) {
-            int commandType = command.get(0);
-            int tokenId = command.get(1);
-            long currentTime = command.get(2);
+            long time = command.get(2);
+            if (maxSeenTime != Long.MIN_VALUE && time < maxSeenTime - maxLateness) {
+                lateCommands++;
+                continue;
+            }
+
+            reorderBuffer.add(new PendingCommand(command.get(0), command.get(1), time, sequence++));
+            maxSeenTime = Math.max(maxSeenTime, time);
+
+            long watermark = maxSeenTime - maxLateness;
+            while (!reorderBuffer.isEmpty() && reorderBuffer.peek().time() <= watermark) {
+                PendingCommand next = reorderBuffer.poll();
+                tokens.apply(next.type(), next.tokenId(), next.time());
+            }
+        }
+
+        while (!reorderBuffer.isEmpty()) {
+            PendingCommand next = reorderBuffer.poll();
+            tokens.apply(next.type(), next.tokenId(), next.time());
+        }
 
+        return new Result(tokens.activeTokens(), lateCommands);
+    }
+
+    /*
+     * Active tokens at the end of the stream, and the commands dropped for arriving past the watermark.
+     */
+    record Result(int activeTokens, int lateCommands) {
+    }
+
+    private record PendingCommand(int type, int tokenId, long time, long sequence) {
+    }
+
+    /*
+     * Token expiry times, fed one command at a time in T order.
+     */
+    private static class TokenStore {
+
+        private final int expiryLimit;
+        private final Map<Integer, Long> tokenExpiryMap = new HashMap<>();
+        private long maxTime = 0;
+
+        TokenStore(int expiryLimit) {
+            this.expiryLimit = expiryLimit;
+        }
+
+        void apply(int commandType, int tokenId, long currentTime) {
             maxTime = Math.max(maxTime, currentTime);
 
             if (commandType == 0) {
@@ -38,14 +111,16 @@ class Solution {
             }
         }
 
-        int activeTokens = 0;
-        for (long expiryTime : tokenExpiryMap.values()) {
-            if (expiryTime >= maxTime) {
-                activeTokens++;
+        int activeTokens() {
+            int activeTokens = 0;
+            for (long expiryTime : tokenExpiryMap.values()) {
+                if (expiryTime >= maxTime) {
+                    activeTokens++;
+                }
             }
-        }
 
-        return activeTokens;
+            return activeTokens;
+        }
     }
 
 }
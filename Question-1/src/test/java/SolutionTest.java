@@ -0,0 +1,62 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SolutionTest {
+
+    @Test
+    public void testReorderBufferRestoresOrder() {
+        List<List<Integer>> commands = List.of(
+                List.of(0, 2, 2), List.of(0, 1, 1), List.of(1, 2, 7), List.of(1, 1, 5));
+
+        Solution.Result result = Solution.numberOfTokens(4, commands, 2);
+
+        assertEquals(1, result.activeTokens());
+        assertEquals(0, result.lateCommands());
+    }
+
+    @Test
+    public void testCommandsPastWatermarkAreCounted() {
+        List<List<Integer>> commands = List.of(
+                List.of(0, 1, 1), List.of(0, 2, 8), List.of(1, 1, 3), List.of(1, 2, 9));
+
+        Solution.Result result = Solution.numberOfTokens(4, commands, 2);
+
+        // The reset of token 1 at T = 3 arrives after T = 8 was seen, below the watermark 6
+        assertEquals(1, result.activeTokens());
+        assertEquals(1, result.lateCommands());
+    }
+
+    @Test
+    public void testJitterWithinLatenessMatchesSortedInput() {
+        Random random = new Random(42);
+        int lateness = 5;
+        List<List<Integer>> sorted = new ArrayList<>();
+        int time = 0;
+        for (int i = 0; i < 20_000; i++) {
+            time += 1 + random.nextInt(3);
+            sorted.add(List.of(random.nextInt(3) == 0 ? 0 : 1, 1 + random.nextInt(500), time));
+        }
+
+        // Delay each command by up to `lateness` time units
+        List<long[]> arrivals = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            arrivals.add(new long[]{sorted.get(i).get(2) + random.nextInt(lateness + 1), i});
+        }
+        arrivals.sort(Comparator.<long[]>comparingLong(a -> a[0]).thenComparingLong(a -> a[1]));
+        List<List<Integer>> jittered = new ArrayList<>();
+        for (long[] arrival : arrivals) {
+            jittered.add(sorted.get((int) arrival[1]));
+        }
+
+        Solution.Result result = Solution.numberOfTokens(10, jittered, lateness);
+
+        assertEquals(Solution.numberOfTokens(10, sorted), result.activeTokens());
+        assertEquals(0, result.lateCommands());
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.productservice;
 
-import com.example.productservice.service.CsvImportService;
+import com.example.productservice.service.StartupImportService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -8,8 +8,6 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
-import java.io.File;
-
 @SpringBootApplication
 @Slf4j
 public class ProductServiceApplication {
@@ -19,24 +17,15 @@ public class ProductServiceApplication {
     }
 
     @Bean
-    public CommandLineRunner importData(@Autowired(required = false) CsvImportService csvImportService) {
+    public CommandLineRunner importData(@Autowired(required = false) StartupImportService startupImportService) {
         return args -> {
-            if (csvImportService == null) {
-                log.info("CsvImportService not available, skipping CSV import");
+            if (startupImportService == null) {
+                log.info("StartupImportService not available, skipping CSV import");
                 return;
             }
 
-            String csvFilePath = "TestExampleFile.csv";
-            File csvFile = new File(csvFilePath);
-
-            if (csvFile.exists()) {
-                log.info("Starting CSV import from: {}", csvFilePath);
-                CsvImportService.ImportResult result = csvImportService.importFromCsv(csvFilePath);
-                log.info("CSV import completed: {}", result);
-            } else {
-                log.warn("CSV file not found at: {}. Skipping import.", csvFilePath);
-            }
+            // Runs in the background by default; readiness flips once the import has finished
+            startupImportService.start();
         };
     }
 }
-
@@ -0,0 +1,38 @@
+package com.example.productservice.config;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process lookup cache in front of the repositories.
+ * Cache sizes, TTL and statistics are configured through spring.cache.caffeine.spec.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_CODE = "productsByCode";
+    public static final String PRODUCT_CODE_EXISTS = "productCodeExists";
+
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORIES_BY_CODE = "categoriesByCode";
+    public static final String CATEGORY_CODE_EXISTS = "categoryCodeExists";
+
+    public static final String AFTER_COMMIT = "afterCommitCacheResolver";
+
+    /**
+     * Caches for the repositories' evictions: inside a transaction they run once it has committed, so a concurrent
+     * read cannot cache the state from before the write again until the entry expires. Without a transaction they
+     * evict at once.
+     */
+    @Bean(AFTER_COMMIT)
+    public CacheResolver afterCommitCacheResolver(CacheManager cacheManager) {
+        return new SimpleCacheResolver(new TransactionAwareCacheManagerProxy(cacheManager));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.productservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Reactor Netty server running the reactive API next to the servlet container. Started with the application
+ * context and stopped before the beans it serves are destroyed.
+ */
+@Slf4j
+public class ReactiveCatalogServer implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final int port;
+
+    private volatile DisposableServer server;
+
+    public ReactiveCatalogServer(HttpHandler httpHandler, int port) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive API started on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running != null) {
+            running.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Port the server is bound to; differs from the configured one when that is 0.
+     *
+     * @throws IllegalStateException if the server is not running
+     */
+    public int getPort() {
+        DisposableServer running = server;
+        if (running == null) {
+            throw new IllegalStateException("Reactive API server is not running");
+        }
+        return running.port();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.productservice.config;
+
+import com.example.productservice.controller.ReactiveCatalogHandler;
+import com.example.productservice.service.StartupImportService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the reactive API (/reactive/api) from WebFlux on its own Reactor Netty server, on catalog.reactive.port.
+ * The rest of the application stays on the servlet container; Spring MVC would write the streamed rows with blocking
+ * I/O on the R2DBC threads. Responses use the application's Jackson configuration, and reads get the same
+ * 503 as /api while the startup import runs with catalog.import.serve-reads-during-import disabled.
+ */
+@Configuration
+public class ReactiveServerConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveCatalogRoutes(ReactiveCatalogHandler handler,
+                                                                StartupImportService startupImportService) {
+        return RouterFunctions.route()
+                .path("/reactive/api", builder -> builder
+                        .GET("/products", handler::getProducts)
+                        .GET("/products/{id}", handler::getProductById)
+                        .GET("/categories", handler::getCategories)
+                        .GET("/categories/{id}", handler::getCategoryById))
+                .filter((request, next) -> startupImportService.isImportInProgress()
+                        && !startupImportService.isServeReadsDuringImport()
+                        ? ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, StartupImportConfig.RETRY_AFTER_SECONDS)
+                                .build()
+                        : next.handle(request))
+                // Deferred so that parameters failing to parse while the handler builds its query also get 400
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(NumberFormatException.class, e -> ServerResponse.badRequest().build()))
+                .build();
+    }
+
+    @Bean
+    public ReactiveCatalogServer reactiveCatalogServer(RouterFunction<ServerResponse> reactiveCatalogRoutes,
+                                                       ObjectProvider<CodecCustomizer> codecCustomizers,
+                                                       @Value("${catalog.reactive.port:8081}") int port) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecCustomizers.orderedStream().forEach(customizer -> customizer.customize(codecs)))
+                .build();
+        return new ReactiveCatalogServer(RouterFunctions.toHttpHandler(reactiveCatalogRoutes, strategies), port);
+    }
+}
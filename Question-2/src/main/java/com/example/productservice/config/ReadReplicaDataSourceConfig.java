@@ -0,0 +1,82 @@
+package com.example.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the primary.
+ * Only active when catalog.datasource.replica.url is set; otherwise Spring Boot's single data source is used.
+ * The routing data source sits behind a {@link LazyConnectionDataSourceProxy} so the connection is fetched
+ * at the first statement, after the transaction's read-only flag has been bound.
+ * Within catalog.datasource.replica.max-lag of its own catalog write, a client's read-only transactions stay on
+ * the primary too (see {@link ReplicaLagWindow}).
+ */
+@Configuration
+@ConditionalOnProperty("catalog.datasource.replica.url")
+public class ReadReplicaDataSourceConfig {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("catalog.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${catalog.datasource.replica.url}") String url,
+                                              @Value("${catalog.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${catalog.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagWindow replicaLagWindow(@Value("${catalog.datasource.replica.max-lag:5s}") Duration maxLag) {
+        return new ReplicaLagWindow(maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagWindow replicaLagWindow) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !replicaLagWindow.isLagging()
+                        ? Route.REPLICA : Route.PRIMARY;
+            }
+        };
+        routing.setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.productservice.config;
+
+import com.example.productservice.event.CatalogChangedEvent;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Keeps the read-only transactions of a client that has just written on the primary for
+ * catalog.datasource.replica.max-lag, so it reads its own writes rather than the replica's older state.
+ * A write made during an HTTP request is recorded when it commits, in a request attribute and in a cookie
+ * holding the write time; the client sends the cookie back with its next requests, to this or any other instance.
+ * Other clients keep reading from the replica. Requests without a client, such as the boot-time import, never
+ * lag.
+ */
+public class ReplicaLagWindow {
+
+    public static final String COOKIE = "catalog-written";
+
+    private static final String WRITTEN_AT = ReplicaLagWindow.class.getName() + ".writtenAt";
+
+    private final Duration maxLag;
+
+    public ReplicaLagWindow(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration maxLag() {
+        return maxLag;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        recordWrite();
+    }
+
+    /**
+     * Records a write by the client of the current request, if there is one.
+     */
+    public void recordWrite() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        attributes.setAttribute(WRITTEN_AT, now, RequestAttributes.SCOPE_REQUEST);
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, maxLag.toSeconds() + 1));
+            response.addCookie(cookie);
+        }
+    }
+
+    /**
+     * True while the replica may still be missing the last write of the current request's client.
+     */
+    public boolean isLagging() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        Object writtenAt = attributes.getAttribute(WRITTEN_AT, RequestAttributes.SCOPE_REQUEST);
+        if (writtenAt == null) {
+            writtenAt = cookieValue(attributes.getRequest());
+        }
+        return writtenAt != null && isRecent((Long) writtenAt);
+    }
+
+    /**
+     * True while a write made at the given epoch millis may not have reached the replica yet.
+     */
+    public boolean isRecent(long writtenAtMillis) {
+        return System.currentTimeMillis() - writtenAtMillis < maxLag.toMillis();
+    }
+
+    private static Long cookieValue(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
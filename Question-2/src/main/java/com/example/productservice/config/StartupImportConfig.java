@@ -0,0 +1,78 @@
+package com.example.productservice.config;
+
+import com.example.productservice.service.StartupImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Holds traffic back while the boot-time CSV import runs.
+ * Readiness reports REFUSING_TRAFFIC until the import is done, even after Spring Boot itself has
+ * published ACCEPTING_TRAFFIC at the end of startup. Catalog requests get 503 in the meantime,
+ * except reads when catalog.import.serve-reads-during-import is enabled.
+ */
+@Configuration
+public class StartupImportConfig implements WebMvcConfigurer {
+
+    static final String RETRY_AFTER_SECONDS = "5";
+
+    private final StartupImportService startupImportService;
+
+    public StartupImportConfig(StartupImportService startupImportService) {
+        this.startupImportService = startupImportService;
+    }
+
+    @Bean
+    public ApplicationAvailabilityBean applicationAvailability() {
+        return new ApplicationAvailabilityBean() {
+            @Override
+            public <S extends AvailabilityState> S getState(Class<S> stateType, S defaultState) {
+                return refusingWhileImporting(stateType, super.getState(stateType, defaultState));
+            }
+
+            @Override
+            public <S extends AvailabilityState> S getState(Class<S> stateType) {
+                return refusingWhileImporting(stateType, super.getState(stateType));
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (!startupImportService.isImportInProgress() || isServedDuringImport(request)) {
+                    return true;
+                }
+
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+                return false;
+            }
+        }).addPathPatterns("/api/products/**", "/api/categories/**");
+    }
+
+    private <S extends AvailabilityState> S refusingWhileImporting(Class<S> stateType, S state) {
+        if (stateType == ReadinessState.class && startupImportService.isImportInProgress()) {
+            return stateType.cast(ReadinessState.REFUSING_TRAFFIC);
+        }
+        return state;
+    }
+
+    private boolean isServedDuringImport(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean read = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+        return read && startupImportService.isServeReadsDuringImport();
+    }
+}
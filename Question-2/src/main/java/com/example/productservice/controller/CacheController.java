@@ -0,0 +1,32 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.service.CatalogCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST Controller exposing hit, miss and eviction statistics of the lookup caches
+ * and of the Hibernate second-level cache regions.
+ */
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CatalogCacheService catalogCacheService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, CatalogCacheService.CacheStatistics>> getStatistics() {
+        return ResponseEntity.ok(catalogCacheService.getStatistics());
+    }
+
+    @GetMapping("/stats/hibernate")
+    public ResponseEntity<Map<String, CatalogCacheService.RegionStatistics>> getSecondLevelStatistics() {
+        return ResponseEntity.ok(catalogCacheService.getSecondLevelStatistics());
+    }
+}
@@ -1,17 +1,39 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.dto.BatchItemResult;
+import com.example.productservice.dto.ChangeFeed;
+import com.example.productservice.dto.CategoryStats;
+import com.example.productservice.dto.CompactPage;
 import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.CatalogChangedEvent;
+import com.example.productservice.repository.CategoryProductCountRepository;
 import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.CatalogBatchService;
+import com.example.productservice.service.CatalogExportService;
+import com.example.productservice.service.ChangeFeedService;
+import com.example.productservice.util.FieldSelection;
 import com.example.productservice.util.PageableUtils;
+import com.example.productservice.util.SortFields;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for Category operations.
  * Implements Challenge 2 requirements: Pagination and Sorting.
+ * Read endpoints honor If-None-Match / If-Modified-Since against the categories table version
+ * (combined with the products table version where products are listed).
  */
 @RestController
 @RequestMapping("/api/categories")
@@ -19,38 +41,172 @@ import org.springframework.web.bind.annotation.*;
 public class CategoryController {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final CategoryProductCountRepository categoryProductCountRepository;
+    private final ConditionalRequestSupport conditionalRequestSupport;
+    private final ChangeFeedService changeFeedService;
+    private final CatalogExportService catalogExportService;
+    private final CatalogBatchService catalogBatchService;
 
-
+    /**
+     * Lists categories; with {@code fields=categoryCode,categoryName} only those columns are selected
+     * and returned in a compact page envelope.
+     */
     @GetMapping
-    public ResponseEntity<Page<Category>> getCategories(
+    public ResponseEntity<?> getCategories(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDirection) {
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+
+        // Only indexed fields may be sorted on, and only known fields selected
+        Optional<List<String>> selectedFields = fields == null ? Optional.empty() : FieldSelection.CATEGORIES.parse(fields);
+        if (!SortFields.CATEGORIES.isSupported(sortBy) || (fields != null && selectedFields.isEmpty())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Answer 304 before touching the database when the table is unchanged
+        if (isNotModified(request)) {
+            return null;
+        }
 
         // Create pageable with validation (extracted to utility)
-        Pageable pageable = PageableUtils.createPageable(page, size, sortBy, sortDirection);
+        Pageable pageable = PageableUtils.createPageable(page, size, sortBy, sortDirection, SortFields.CATEGORIES);
+        if (selectedFields.isPresent()) {
+            return ResponseEntity.ok(CompactPage.of(categoryRepository.findAllFields(selectedFields.get(), null, pageable)));
+        }
+
         Page<Category> categories = categoryRepository.findAll(pageable);
 
         return ResponseEntity.ok(categories);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<Category> getCategoryById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+
         return categoryRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Product counts per category, read from the incrementally maintained counter table.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStats>> getCategoryStats(WebRequest request) {
+        if (isNotModifiedWithProducts(request)) {
+            return null;
+        }
+
+        return ResponseEntity.ok(categoryProductCountRepository.findAllStats());
+    }
+
+    /**
+     * Change feed for synchronizing downstream copies: up to {@code limit} categories inserted after the cursor
+     * {@code since} (a category id, 0 for the start), in id order, with the cursor for the next call.
+     * Rows created within catalog.changes.settle-time are held back so open transactions can commit first; a row
+     * whose transaction runs longer than that can commit below a stored cursor and is then never returned.
+     * Validators are only sent once the last write is older than the settle time, since until then the same request
+     * can return more rows later.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed<Category>> getCategoryChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest request) {
+
+        if (since < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (conditionalRequestSupport.isFeedNotModified(request, CatalogChangedEvent.Table.CATEGORIES)) {
+            return null;
+        }
+
+        return ResponseEntity.ok(changeFeedService.categoryChanges(since, limit));
+    }
+
+    /**
+     * Lists the products of a category, paginated and sorted like {@code /api/products}.
+     * Backed by the (category_code, id) index on products.
+     */
+    @GetMapping("/{code}/products")
+    public ResponseEntity<Page<Product>> getCategoryProducts(
+            @PathVariable String code,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            WebRequest request) {
+
+        if (!SortFields.PRODUCTS.isSupported(sortBy)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (isNotModifiedWithProducts(request)) {
+            return null;
+        }
+
+        if (!categoryRepository.existsByCategoryCode(code)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Pageable pageable = PageableUtils.createPageable(page, size, sortBy, sortDirection, SortFields.PRODUCTS);
+        return ResponseEntity.ok(productRepository.findByCategoryCode(code, pageable));
+    }
+
+    /**
+     * Streams every category as CSV (import file layout) or NDJSON without pagination.
+     */
+    @GetMapping("/export")
+    public void exportCategories(
+            @RequestParam(defaultValue = "CSV") CatalogExportService.ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getMediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        catalogExportService.exportCategories(format, response.getWriter());
+    }
+
     @PostMapping
     public ResponseEntity<Category> createCategory(@RequestBody Category category) {
-        // Validate unique category code (Challenge 1 requirement)
-        if (categoryRepository.existsByCategoryCode(category.getCategoryCode())) {
+        // Validate unique category code (Challenge 1 requirement) and insert in one atomic statement
+        Optional<Category> savedCategory = catalogBatchService.createCategory(category);
+        if (savedCategory.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        Category savedCategory = categoryRepository.save(category);
-        return ResponseEntity.ok(savedCategory);
+        return ResponseEntity.ok(savedCategory.get());
     }
-}
 
+    /**
+     * Creates up to {@link CatalogBatchService#MAX_BATCH_SIZE} categories and reports a status per item.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createCategories(@RequestBody List<Category> categories) {
+        if (categories.isEmpty() || categories.size() > CatalogBatchService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(catalogBatchService.createCategories(categories));
+    }
+
+    /**
+     * Checks the request validators and, for GET/HEAD, adds ETag, Last-Modified and Vary to the response.
+     */
+    private boolean isNotModified(WebRequest request) {
+        return conditionalRequestSupport.isNotModified(request, CatalogChangedEvent.Table.CATEGORIES);
+    }
+
+    /**
+     * Same as {@link #isNotModified(WebRequest)} for responses that list products of a category.
+     */
+    private boolean isNotModifiedWithProducts(WebRequest request) {
+        return conditionalRequestSupport.isNotModified(request,
+                CatalogChangedEvent.Table.CATEGORIES, CatalogChangedEvent.Table.PRODUCTS);
+    }
+}
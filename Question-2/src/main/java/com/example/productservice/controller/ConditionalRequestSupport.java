@@ -0,0 +1,109 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.config.ReplicaLagWindow;
+import com.example.productservice.event.CatalogChangedEvent;
+import com.example.productservice.service.CatalogVersionService;
+import com.example.productservice.service.ChangeFeedService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ETag / Last-Modified handling shared by the catalog controllers.
+ * The same version is served as JSON, CBOR or Smile depending on the Accept header, so the ETag names the
+ * representation and the response carries {@code Vary: Accept}.
+ * With a read replica, a response built within catalog.datasource.replica.max-lag of the last write may come from
+ * a replica that has not caught up, so until the version is that old responses get no validators and are never a
+ * 304; the older state is never stored under the new version.
+ */
+@Component
+@RequiredArgsConstructor
+class ConditionalRequestSupport {
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // In the converters' order: JSON wins for wildcard Accept headers
+    private static final List<MediaType> PRODUCIBLE =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    private static final Map<MediaType, String> REPRESENTATIONS = Map.of(
+            MediaType.APPLICATION_JSON, "json",
+            MediaType.APPLICATION_CBOR, "cbor",
+            APPLICATION_SMILE, "smile");
+
+    private final CatalogVersionService catalogVersionService;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final ChangeFeedService changeFeedService;
+    private final ObjectProvider<ReplicaLagWindow> replicaLagWindow;
+
+    /**
+     * Checks the request validators against the version of the given tables and, for GET/HEAD, adds ETag,
+     * Last-Modified and Vary to the response.
+     */
+    boolean isNotModified(WebRequest request, CatalogChangedEvent.Table... tables) {
+        return isNotModified(request, catalogVersionService.combined(tables));
+    }
+
+    /**
+     * Same as {@link #isNotModified(WebRequest, CatalogChangedEvent.Table...)} for a change feed of the table.
+     * Feed batches hold back rows for catalog.changes.settle-time after they are written, so until the last write is
+     * that old the response can change without a new version: it then gets no validators and is never a 304.
+     */
+    boolean isFeedNotModified(WebRequest request, CatalogChangedEvent.Table table) {
+        CatalogVersionService.Version version = catalogVersionService.current(table);
+        if (changeFeedService.mayHoldBack(version.lastModified())) {
+            return false;
+        }
+        return isNotModified(request, version);
+    }
+
+    private boolean isNotModified(WebRequest request, CatalogVersionService.Version version) {
+        ReplicaLagWindow lagWindow = replicaLagWindow.getIfAvailable();
+        if (lagWindow != null && lagWindow.isRecent(version.lastModified())) {
+            return false;
+        }
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        return request.checkNotModified(version.etag(representation(request)), version.lastModified());
+    }
+
+    /**
+     * The representation message conversion will pick: the most specific accepted type that a converter produces.
+     */
+    private String representation(WebRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = request instanceof NativeWebRequest nativeRequest
+                    ? contentNegotiationManager.resolveMediaTypes(nativeRequest)
+                    : List.of(MediaType.ALL);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            accepted = List.of(MediaType.ALL);
+        }
+
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType acceptedType : accepted) {
+            for (MediaType producible : PRODUCIBLE) {
+                if (acceptedType.isCompatibleWith(producible)) {
+                    compatible.add(producible.copyQualityValue(acceptedType));
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+        return compatible.isEmpty() ? "json" : REPRESENTATIONS.get(compatible.get(0).removeQualityValue());
+    }
+}
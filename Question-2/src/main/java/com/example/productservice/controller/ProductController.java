@@ -1,60 +1,215 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.dto.BatchItemResult;
+import com.example.productservice.dto.ChangeFeed;
+import com.example.productservice.dto.CompactPage;
+import com.example.productservice.dto.ProductSearchHit;
 import com.example.productservice.entity.Product;
+import com.example.productservice.event.CatalogChangedEvent;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.CatalogBatchService;
+import com.example.productservice.service.CatalogExportService;
+import com.example.productservice.service.ChangeFeedService;
+import com.example.productservice.service.CategoryExpansionService;
+import com.example.productservice.util.FieldSelection;
 import com.example.productservice.util.PageableUtils;
+import com.example.productservice.util.SortFields;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for Product operations.
  * Implements Challenge 2 requirements: Pagination, Sorting, and Search by product code.
+ * Read endpoints honor If-None-Match / If-Modified-Since against the products table version
+ * (combined with the categories table version for expand=category).
  */
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String EXPAND_CATEGORY = "category";
+
     private final ProductRepository productRepository;
+    private final ConditionalRequestSupport conditionalRequestSupport;
+    private final ChangeFeedService changeFeedService;
+    private final CatalogExportService catalogExportService;
+    private final CatalogBatchService catalogBatchService;
+    private final CategoryExpansionService categoryExpansionService;
 
+    /**
+     * Lists products; with {@code expand=category} each product embeds its category,
+     * resolved with one IN query per page. With {@code fields=productCode,productName} only those
+     * columns are selected and returned in a compact page envelope.
+     */
     @GetMapping
-    public ResponseEntity<Page<Product>> getProducts(
+    public ResponseEntity<?> getProducts(
             @RequestParam(required = false) String productCode,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDirection) {
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(required = false) String expand,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+
+        // Only indexed fields may be sorted on, and category is the only expandable relation
+        boolean expandCategory = EXPAND_CATEGORY.equals(expand);
+        if (!SortFields.PRODUCTS.isSupported(sortBy) || (expand != null && !expandCategory)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Sparse fieldsets name known fields only and cannot be combined with expansion
+        Optional<List<String>> selectedFields = fields == null ? Optional.empty() : FieldSelection.PRODUCTS.parse(fields);
+        if (fields != null && (selectedFields.isEmpty() || expandCategory)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Answer 304 before touching the database when the table(s) are unchanged
+        if (expandCategory ? isNotModifiedWithCategories(request) : isNotModified(request)) {
+            return null;
+        }
 
         // Create pageable with validation (extracted to utility)
-        Pageable pageable = PageableUtils.createPageable(page, size, sortBy, sortDirection);
+        Pageable pageable = PageableUtils.createPageable(page, size, sortBy, sortDirection, SortFields.PRODUCTS);
+        boolean searchByCode = productCode != null && !productCode.isEmpty();
+
+        if (selectedFields.isPresent()) {
+            Specification<Product> specification = searchByCode ? productCodeContaining(productCode) : null;
+            return ResponseEntity.ok(CompactPage.of(
+                    productRepository.findAllFields(selectedFields.get(), specification, pageable)));
+        }
 
         // Search by product code if provided, otherwise return all (Challenge 2 requirement)
-        Page<Product> products = (productCode != null && !productCode.isEmpty())
+        Page<Product> products = searchByCode
                 ? productRepository.findByProductCodeContaining(productCode, pageable)
                 : productRepository.findAll(pageable);
 
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(expandCategory ? categoryExpansionService.withCategories(products) : products);
+    }
+
+    /**
+     * Ranked name search over product and category names; each word matches a word prefix.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductSearchHit>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (isNotModifiedWithCategories(request)) {
+            return null;
+        }
+
+        return ResponseEntity.ok(productRepository.searchByName(q, PageableUtils.createPageable(page, size)));
+    }
+
+    /**
+     * Change feed for synchronizing downstream copies: up to {@code limit} products inserted after the cursor
+     * {@code since} (a product id, 0 for the start), in id order, with the cursor for the next call.
+     * Rows created within catalog.changes.settle-time are held back so open transactions can commit first; a row
+     * whose transaction runs longer than that can commit below a stored cursor and is then never returned.
+     * Validators are only sent once the last write is older than the settle time, since until then the same request
+     * can return more rows later.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed<Product>> getProductChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest request) {
+
+        if (since < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (conditionalRequestSupport.isFeedNotModified(request, CatalogChangedEvent.Table.PRODUCTS)) {
+            return null;
+        }
+
+        return ResponseEntity.ok(changeFeedService.productChanges(since, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+
         return productRepository.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Streams every product as CSV (import file layout) or NDJSON without pagination.
+     */
+    @GetMapping("/export")
+    public void exportProducts(
+            @RequestParam(defaultValue = "CSV") CatalogExportService.ExportFormat format,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(format.getMediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        catalogExportService.exportProducts(format, response.getWriter());
+    }
+
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product) {
-        // Validate unique product code (Challenge 1 requirement)
-        if (productRepository.existsByProductCode(product.getProductCode())) {
+        // Validate unique product code (Challenge 1 requirement) and insert in one atomic statement
+        Optional<Product> savedProduct = catalogBatchService.createProduct(product);
+        if (savedProduct.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        Product savedProduct = productRepository.save(product);
-        return ResponseEntity.ok(savedProduct);
+        return ResponseEntity.ok(savedProduct.get());
     }
-}
 
+    /**
+     * Creates up to {@link CatalogBatchService#MAX_BATCH_SIZE} products and reports a status per item.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createProducts(@RequestBody List<Product> products) {
+        if (products.isEmpty() || products.size() > CatalogBatchService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(catalogBatchService.createProducts(products));
+    }
+
+    // Same semantics as findByProductCodeContaining: LIKE wildcards in the input match literally
+    private static Specification<Product> productCodeContaining(String productCode) {
+        return (root, query, cb) -> cb.like(root.get("productCode"),
+                "%" + EscapeCharacter.DEFAULT.escape(productCode) + "%", EscapeCharacter.DEFAULT.getEscapeCharacter());
+    }
+
+    /**
+     * Checks the request validators and, for GET/HEAD, adds ETag, Last-Modified and Vary to the response.
+     */
+    private boolean isNotModified(WebRequest request) {
+        return conditionalRequestSupport.isNotModified(request, CatalogChangedEvent.Table.PRODUCTS);
+    }
+
+    /**
+     * Same as {@link #isNotModified(WebRequest)} for responses that also embed category data.
+     */
+    private boolean isNotModifiedWithCategories(WebRequest request) {
+        return conditionalRequestSupport.isNotModified(request,
+                CatalogChangedEvent.Table.PRODUCTS, CatalogChangedEvent.Table.CATEGORIES);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.ReactiveCatalogRepository;
+import com.example.productservice.util.PageableUtils;
+import com.example.productservice.util.SortFields;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking read API for products and categories, backed by R2DBC and served by WebFlux on Reactor Netty
+ * (see ReactiveServerConfig), not by the servlet container.
+ * Paging, sorting and the product code filter behave as in /api. Lists are streamed as NDJSON, one row per line
+ * as it arrives from the database, unless the client asks for {@code application/json}, which streams the page
+ * as a JSON array. Rows are written with non-blocking I/O: a slow client only delays its own response, without
+ * holding an event loop or R2DBC thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReactiveCatalogHandler {
+
+    private final ReactiveCatalogRepository reactiveCatalogRepository;
+
+    public Mono<ServerResponse> getProducts(ServerRequest request) {
+        String sortBy = request.queryParam("sortBy").orElse("id");
+        if (!SortFields.PRODUCTS.isSupported(sortBy)) {
+            return ServerResponse.badRequest().build();
+        }
+
+        String filter = request.queryParam("productCode").filter(code -> !code.isEmpty()).orElse(null);
+        return list(request, reactiveCatalogRepository.findProducts(filter,
+                pageable(request, sortBy, SortFields.PRODUCTS)), Product.class);
+    }
+
+    public Mono<ServerResponse> getProductById(ServerRequest request) {
+        return reactiveCatalogRepository.findProductById(Long.valueOf(request.pathVariable("id")))
+                .flatMap(product -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(product))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> getCategories(ServerRequest request) {
+        String sortBy = request.queryParam("sortBy").orElse("id");
+        if (!SortFields.CATEGORIES.isSupported(sortBy)) {
+            return ServerResponse.badRequest().build();
+        }
+
+        return list(request, reactiveCatalogRepository.findCategories(
+                pageable(request, sortBy, SortFields.CATEGORIES)), Category.class);
+    }
+
+    public Mono<ServerResponse> getCategoryById(ServerRequest request) {
+        return reactiveCatalogRepository.findCategoryById(Long.valueOf(request.pathVariable("id")))
+                .flatMap(category -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(category))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    // Malformed numbers throw NumberFormatException, which the routes answer with 400
+    private static Pageable pageable(ServerRequest request, String sortBy, SortFields sortFields) {
+        return PageableUtils.createPageable(intParam(request, "page", 0), intParam(request, "size", 10), sortBy,
+                request.queryParam("sortDirection").orElse("ASC"), sortFields);
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    /**
+     * NDJSON unless the client names application/json but not NDJSON; 406 if it accepts neither.
+     */
+    private static <T> Mono<ServerResponse> list(ServerRequest request, Flux<T> rows, Class<T> type) {
+        List<MediaType> accept = request.headers().accept();
+        boolean namesJson = accept.stream().anyMatch(MediaType.APPLICATION_JSON::equalsTypeAndSubtype);
+        boolean namesNdjson = accept.stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        if (namesJson && !namesNdjson) {
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(rows, type);
+        }
+        if (accept.isEmpty() || accept.stream().anyMatch(MediaType.APPLICATION_NDJSON::isCompatibleWith)) {
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(rows, type);
+        }
+        return ServerResponse.status(HttpStatus.NOT_ACCEPTABLE).build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.productservice.dto;
+
+/**
+ * Outcome of a single item in a batch create request.
+ * {@code index} is the item's position in the request array; {@code id} is only set for created items.
+ */
+public record BatchItemResult(int index, String code, Status status, Long id, String message) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        ERROR
+    }
+
+    public static BatchItemResult created(int index, String code, Long id) {
+        return new BatchItemResult(index, code, Status.CREATED, id, null);
+    }
+
+    public static BatchItemResult duplicate(int index, String code, String message) {
+        return new BatchItemResult(index, code, Status.DUPLICATE, null, message);
+    }
+
+    public static BatchItemResult error(int index, String code, String message) {
+        return new BatchItemResult(index, code, Status.ERROR, null, message);
+    }
+}
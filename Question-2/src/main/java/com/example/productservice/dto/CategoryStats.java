@@ -0,0 +1,7 @@
+package com.example.productservice.dto;
+
+/**
+ * Product count of one category; {@code categoryName} is null when products reference an unknown category code.
+ */
+public record CategoryStats(String categoryCode, String categoryName, long productCount) {
+}
@@ -0,0 +1,23 @@
+package com.example.productservice.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One batch of a change feed: rows with an id above the requested cursor, in id order.
+ * Pass {@code nextCursor} as {@code since} to fetch the following batch; {@code hasMore} tells whether one exists.
+ * The cursor is an id, not a commit position: a row whose transaction commits after the cursor has passed its id
+ * is never returned. Batches hold back recently created rows to make that unlikely, not impossible.
+ */
+public record ChangeFeed<T>(List<T> items, long nextCursor, boolean hasMore) {
+
+    public static final int MAX_LIMIT = 1000;
+
+    public static <T> ChangeFeed<T> of(Slice<T> slice, long since, ToLongFunction<T> id) {
+        List<T> items = slice.getContent();
+        long nextCursor = items.isEmpty() ? since : id.applyAsLong(items.get(items.size() - 1));
+        return new ChangeFeed<>(items, nextCursor, slice.hasNext());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.productservice.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Page envelope without the pageable and sort blocks of a serialized Spring {@link Page}.
+ */
+public record CompactPage<T>(List<T> content, int page, int size, long totalElements, int totalPages) {
+
+    public static <T> CompactPage<T> of(Page<T> page) {
+        return new CompactPage<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
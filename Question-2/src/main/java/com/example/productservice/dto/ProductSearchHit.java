@@ -0,0 +1,10 @@
+package com.example.productservice.dto;
+
+import com.example.productservice.entity.Product;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Product matched by a name search with its relevance; higher ranks come first.
+ */
+public record ProductSearchHit(@JsonUnwrapped Product product, double rank) {
+}
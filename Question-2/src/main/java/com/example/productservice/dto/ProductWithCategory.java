@@ -0,0 +1,12 @@
+package com.example.productservice.dto;
+
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Product with its category embedded, as returned for {@code expand=category}.
+ * The product fields stay at the top level; {@code category} is null when the code has no category row.
+ */
+public record ProductWithCategory(@JsonUnwrapped Product product, Category category) {
+}
@@ -0,0 +1,28 @@
+package com.example.productservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of products per category code, kept up to date on every product insert
+ * so per-category statistics never need a GROUP BY over the products table.
+ */
+@Entity
+@Table(name = "category_product_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryProductCount {
+
+    @Id
+    @Column(name = "category_code")
+    private String categoryCode;
+
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+}
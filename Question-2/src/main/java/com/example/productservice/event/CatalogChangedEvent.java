@@ -0,0 +1,21 @@
+package com.example.productservice.event;
+
+/**
+ * Published after rows were written to a catalog table.
+ * Listeners use {@code @TransactionalEventListener} so they only react once the write is committed.
+ */
+public record CatalogChangedEvent(Table table) {
+
+    public enum Table {
+        PRODUCTS,
+        CATEGORIES
+    }
+
+    public static CatalogChangedEvent products() {
+        return new CatalogChangedEvent(Table.PRODUCTS);
+    }
+
+    public static CatalogChangedEvent categories() {
+        return new CatalogChangedEvent(Table.CATEGORIES);
+    }
+}
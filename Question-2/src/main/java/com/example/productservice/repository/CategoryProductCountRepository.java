@@ -0,0 +1,21 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.dto.CategoryStats;
+import com.example.productservice.entity.CategoryProductCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategoryProductCountRepository extends JpaRepository<CategoryProductCount, String> {
+
+    /**
+     * Reads the maintained counters with their category names; one row per category, no aggregation.
+     */
+    @Query("select new com.example.productservice.dto.CategoryStats(k.categoryCode, c.categoryName, k.productCount) "
+            + "from CategoryProductCount k left join Category c on c.categoryCode = k.categoryCode "
+            + "where k.productCount > 0 order by k.categoryCode")
+    List<CategoryStats> findAllStats();
+}
@@ -0,0 +1,57 @@
+package com.example.productservice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies product count deltas to category_product_counts with one upsert per category code.
+ * PostgreSQL uses {@code INSERT ... ON CONFLICT DO UPDATE}; other databases (H2 in tests) use {@code MERGE}.
+ * Runs in the caller's transaction; the counted insert methods of {@link ProductRepository} are {@code @Transactional},
+ * so the counts commit or roll back together with the products even when called without one.
+ */
+class CategoryProductCounter {
+
+    private static final String POSTGRES_SQL = "INSERT INTO category_product_counts (category_code, product_count) VALUES (?, ?)"
+            + " ON CONFLICT (category_code) DO UPDATE"
+            + " SET product_count = category_product_counts.product_count + EXCLUDED.product_count";
+
+    private static final String MERGE_SQL = "MERGE INTO category_product_counts t"
+            + " USING (SELECT CAST(? AS VARCHAR(255)) AS category_code, CAST(? AS BIGINT) AS delta) s"
+            + " ON t.category_code = s.category_code"
+            + " WHEN MATCHED THEN UPDATE SET product_count = t.product_count + s.delta"
+            + " WHEN NOT MATCHED THEN INSERT (category_code, product_count) VALUES (s.category_code, s.delta)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InsertIfAbsentJdbcSupport insertSupport;
+
+    CategoryProductCounter(JdbcTemplate jdbcTemplate, InsertIfAbsentJdbcSupport insertSupport) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertSupport = insertSupport;
+    }
+
+    void increment(String categoryCode) {
+        jdbcTemplate.update(insertSupport.isPostgres() ? POSTGRES_SQL : MERGE_SQL, categoryCode, 1L);
+    }
+
+    /**
+     * Adds the given number of products per category code.
+     */
+    void incrementAll(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Sorted so concurrent batches lock the counter rows in the same order
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((categoryCode, delta) -> rows.add(new Object[]{categoryCode, delta}));
+        jdbcTemplate.batchUpdate(insertSupport.isPostgres() ? POSTGRES_SQL : MERGE_SQL, rows);
+    }
+
+    void clear() {
+        jdbcTemplate.update("DELETE FROM category_product_counts");
+    }
+}
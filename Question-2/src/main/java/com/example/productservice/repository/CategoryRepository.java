@@ -1,16 +1,90 @@
 package com.example.productservice.repository;
 
+import com.example.productservice.config.CacheConfig;
 import com.example.productservice.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
-    
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#p0")
+    Optional<Category> findById(Long id);
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES_BY_CODE, key = "#p0")
     Optional<Category> findByCategoryCode(String categoryCode);
-    
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_CODE_EXISTS, key = "#p0")
     boolean existsByCategoryCode(String categoryCode);
-}
 
+    /**
+     * Streams every category in id order through a server-side cursor; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Category c order by c.id")
+    Stream<Category> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findByCategoryCodeIn(Collection<String> categoryCodes);
+
+    /**
+     * Category pages (and their counts) come from the Hibernate query cache while the table is unchanged.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Category> findAll(Pageable pageable);
+
+    /**
+     * Change feed batch: categories with an id in the open range, as a primary key range scan without a count query.
+     */
+    Slice<Category> findByIdGreaterThanAndIdLessThanOrderByIdAsc(Long since, Long before, Pageable pageable);
+
+    /**
+     * First of the categories after the given id created at or after the given time; a primary key range scan
+     * over the rows above the cursor.
+     */
+    Optional<Category> findFirstByIdGreaterThanAndCreationDateGreaterThanEqualOrderByIdAsc(Long id, LocalDateTime createdFrom);
+
+    /**
+     * Those of the given codes that exist, for callers that skip known codes before an insert; an index lookup
+     * per code.
+     */
+    @Query("select c.categoryCode from Category c where c.categoryCode in :codes")
+    Set<String> findExistingCategoryCodes(Collection<String> codes);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = CacheConfig.CATEGORIES, key = "#result.id"),
+            @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = {CacheConfig.CATEGORIES_BY_CODE, CacheConfig.CATEGORY_CODE_EXISTS}, key = "#p0.categoryCode")
+    })
+    <S extends Category> S save(S category);
+
+    @Override
+    @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = {CacheConfig.CATEGORIES_BY_CODE, CacheConfig.CATEGORY_CODE_EXISTS}, key = "#p0.categoryCode")
+    Optional<Category> insertIfAbsent(Category category);
+
+    @Override
+    @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = {CacheConfig.CATEGORIES, CacheConfig.CATEGORIES_BY_CODE, CacheConfig.CATEGORY_CODE_EXISTS}, allEntries = true)
+    void deleteAll();
+}
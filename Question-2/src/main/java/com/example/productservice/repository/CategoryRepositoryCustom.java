@@ -0,0 +1,40 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.entity.Category;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Atomic insert-if-absent operations for categories, keyed on the unique category code, and field projections.
+ */
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Inserts the category in a single statement unless its category code already exists.
+     *
+     * @return the category with id and creation date set, or empty when the code is taken
+     */
+    Optional<Category> insertIfAbsent(Category category);
+
+    /**
+     * Inserts all categories as one JDBC batch, skipping codes that already exist.
+     * Inserted categories get their id and creation date set; skipped categories keep a {@code null} id.
+     *
+     * @return number of inserted categories
+     */
+    int insertAllIfAbsent(List<Category> categories);
+
+    /**
+     * Pages through categories selecting only the given attributes, without loading entities.
+     *
+     * @param fields entity attribute names, in response order
+     * @param specification optional filter, may be {@code null}
+     * @return one map per row, keyed by attribute name
+     */
+    Page<Map<String, Object>> findAllFields(List<String> fields, Specification<Category> specification, Pageable pageable);
+}
@@ -0,0 +1,70 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.entity.Category;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class CategoryRepositoryCustomImpl implements CategoryRepositoryCustom {
+
+    // The unique code column must come first
+    private static final String[] COLUMNS = {"category_code", "category_name", "creation_date"};
+
+    private final InsertIfAbsentJdbcSupport insertSupport;
+    private final FieldProjectionSupport<Category> fieldProjectionSupport;
+
+    CategoryRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.insertSupport = new InsertIfAbsentJdbcSupport(jdbcTemplate);
+        this.fieldProjectionSupport = new FieldProjectionSupport<>(entityManager, Category.class);
+    }
+
+    @Override
+    public Optional<Category> insertIfAbsent(Category category) {
+        return insertSupport.insertIfAbsent("categories", COLUMNS, toRow(category))
+                .map(id -> {
+                    category.setId(id);
+                    return category;
+                });
+    }
+
+    @Override
+    public int insertAllIfAbsent(List<Category> categories) {
+        List<Long> ids = insertSupport.insertAllIfAbsent("categories", COLUMNS,
+                categories.stream().map(CategoryRepositoryCustomImpl::toRow).toList());
+
+        int inserted = 0;
+        for (int i = 0; i < categories.size(); i++) {
+            categories.get(i).setId(ids.get(i));
+            if (ids.get(i) != null) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Specification<Category> specification, Pageable pageable) {
+        return fieldProjectionSupport.findAll(fields, specification, pageable);
+    }
+
+    private static Object[] toRow(Category category) {
+        if (category.getCreationDate() == null) {
+            category.setCreationDate(LocalDateTime.now());
+        }
+        return new Object[]{
+                category.getCategoryCode(),
+                category.getCategoryName(),
+                Timestamp.valueOf(category.getCreationDate())
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stores the whole-file and per-chunk content hashes of the last import of each CSV file.
+ * Written in the import's transaction, so a failed import keeps the previous fingerprints.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImportFingerprintRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Fingerprints of the last import of a file; {@code chunkHashes} are in chunk order and {@code chunkRows} is the
+     * average chunk size they were cut with.
+     */
+    public record Fingerprint(String fileHash, int chunkRows, long rowCount, List<String> chunkHashes) {
+    }
+
+    public Optional<Fingerprint> find(String fileKey) {
+        return jdbcTemplate.query(
+                        "SELECT file_hash, chunk_rows, row_count FROM import_file_fingerprints WHERE file_key = ?",
+                        (rs, rowNum) -> new Fingerprint(rs.getString(1), rs.getInt(2), rs.getLong(3), List.of()),
+                        fileKey)
+                .stream()
+                .findFirst()
+                .map(file -> new Fingerprint(file.fileHash(), file.chunkRows(), file.rowCount(),
+                        jdbcTemplate.queryForList("SELECT chunk_hash FROM import_chunk_fingerprints"
+                                + " WHERE file_key = ? ORDER BY chunk_index", String.class, fileKey)));
+    }
+
+    public void save(String fileKey, Fingerprint fingerprint) {
+        jdbcTemplate.update("DELETE FROM import_chunk_fingerprints WHERE file_key = ?", fileKey);
+        jdbcTemplate.update("DELETE FROM import_file_fingerprints WHERE file_key = ?", fileKey);
+        jdbcTemplate.update("INSERT INTO import_file_fingerprints (file_key, file_hash, chunk_rows, row_count, imported_at)"
+                        + " VALUES (?, ?, ?, ?, ?)",
+                fileKey, fingerprint.fileHash(), fingerprint.chunkRows(), fingerprint.rowCount(),
+                Timestamp.valueOf(LocalDateTime.now()));
+
+        List<Object[]> chunks = new ArrayList<>(fingerprint.chunkHashes().size());
+        for (int i = 0; i < fingerprint.chunkHashes().size(); i++) {
+            chunks.add(new Object[]{fileKey, i, fingerprint.chunkHashes().get(i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO import_chunk_fingerprints (file_key, chunk_index, chunk_hash) VALUES (?, ?, ?)",
+                chunks);
+    }
+}
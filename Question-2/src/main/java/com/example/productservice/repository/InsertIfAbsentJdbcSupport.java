@@ -0,0 +1,189 @@
+package com.example.productservice.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Single-statement insert-if-absent for tables with a unique code column and a generated {@code id}.
+ * PostgreSQL uses {@code INSERT ... ON CONFLICT DO NOTHING RETURNING id}; other databases (H2 in tests)
+ * use {@code INSERT ... SELECT ... WHERE NOT EXISTS}, with the unique constraint as the final arbiter.
+ * Either way a conflicting code is reported as "not inserted" instead of failing the transaction.
+ * Without ON CONFLICT a batch runs inside a savepoint, so a batch that loses a race is undone before the
+ * row-by-row retry.
+ */
+@Slf4j
+class InsertIfAbsentJdbcSupport {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    InsertIfAbsentJdbcSupport(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts one row unless {@code columns[0]} (the unique code column) already holds its value.
+     *
+     * @return the generated id, or empty when the code already exists
+     */
+    Optional<Long> insertIfAbsent(String table, String[] columns, Object[] values) {
+        if (isPostgres()) {
+            List<Long> ids = jdbcTemplate.query(postgresSql(table, columns, true),
+                    (rs, rowNum) -> rs.getLong(1), values);
+            return ids.stream().findFirst();
+        }
+
+        try {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            int inserted = jdbcTemplate.update(statementCreator(guardedSql(table, columns), guardedParameters(values)),
+                    keyHolder);
+            return inserted == 0 ? Optional.empty() : Optional.of(idOf(keyHolder.getKeyList().get(0)));
+        } catch (DuplicateKeyException e) {
+            // A concurrent insert won the race between the NOT EXISTS check and the insert
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Inserts all rows as one JDBC batch, skipping rows whose code already exists.
+     *
+     * @return generated ids in row order, {@code null} for skipped rows
+     */
+    List<Long> insertAllIfAbsent(String table, String[] columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        boolean postgresDialect = isPostgres();
+        if (!postgresDialect && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Each batched row would commit on its own, so a failed batch could not be undone before the retry
+            return insertRowByRow(table, columns, rows);
+        }
+
+        String sql = postgresDialect ? postgresSql(table, columns, false) : guardedSql(table, columns);
+        Savepoint savepoint = postgresDialect ? null : jdbcTemplate.execute(
+                (ConnectionCallback<Savepoint>) Connection::setSavepoint);
+
+        try {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            int[] counts = jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Object[] values = postgresDialect ? rows.get(i) : guardedParameters(rows.get(i));
+                            for (int column = 0; column < values.length; column++) {
+                                ps.setObject(column + 1, values[column]);
+                            }
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    },
+                    keyHolder);
+
+            // Keys are only returned for inserted rows, in batch order
+            List<Long> ids = new ArrayList<>(Collections.nCopies(rows.size(), null));
+            Iterator<Map<String, Object>> keys = keyHolder.getKeyList().iterator();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0 && keys.hasNext()) {
+                    ids.set(i, idOf(keys.next()));
+                }
+            }
+            if (savepoint != null) {
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    connection.releaseSavepoint(savepoint);
+                    return null;
+                });
+            }
+            return ids;
+        } catch (DuplicateKeyException e) {
+            // Only reachable without ON CONFLICT support. The rows the batch did insert are rolled back first,
+            // otherwise the retry would find them and report them as skipped.
+            log.debug("Concurrent insert on {}, retrying batch of {} row by row", table, rows.size());
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            return insertRowByRow(table, columns, rows);
+        }
+    }
+
+    private List<Long> insertRowByRow(String table, String[] columns, List<Object[]> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add(insertIfAbsent(table, columns, row).orElse(null));
+        }
+        return ids;
+    }
+
+    boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String productName = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(productName);
+            postgres = result;
+        }
+        return result;
+    }
+
+    private static String postgresSql(String table, String[] columns, boolean returning) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders(columns.length) + ")"
+                + " ON CONFLICT (" + columns[0] + ") DO NOTHING"
+                + (returning ? " RETURNING id" : "");
+    }
+
+    private static String guardedSql(String table, String[] columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ")"
+                + " SELECT " + placeholders(columns.length)
+                + " WHERE NOT EXISTS (SELECT 1 FROM " + table + " WHERE " + columns[0] + " = ?)";
+    }
+
+    // The guarded statement binds the code a second time for the NOT EXISTS check
+    private static Object[] guardedParameters(Object[] values) {
+        Object[] parameters = new Object[values.length + 1];
+        System.arraycopy(values, 0, parameters, 0, values.length);
+        parameters[values.length] = values[0];
+        return parameters;
+    }
+
+    private static PreparedStatementCreator statementCreator(String sql, Object[] parameters) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
+            for (int i = 0; i < parameters.length; i++) {
+                ps.setObject(i + 1, parameters[i]);
+            }
+            return ps;
+        };
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Long idOf(Map<String, Object> keys) {
+        return ((Number) keys.get("id")).longValue();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.dto.ProductSearchHit;
+import com.example.productservice.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ranked name search over products, matching the product name or the name of the product's category.
+ * Every term must match the start of a word, a word being a run of letters and digits; category-name matches rank
+ * below product-name matches.
+ * PostgreSQL finds matches through the generated tsvector columns and their GIN indexes and ranks them with ts_rank.
+ * Other databases (H2 in tests) have no such index and scan the generated search_name columns with LIKE.
+ * The work is bounded: each of the two match lists stops at the first {@link #MAX_CANDIDATES} rows found, in no
+ * particular order, so a category does not fan out to all its products. Only the best {@link #MAX_CANDIDATES} of
+ * those are ranked and paged, and the total counts them, so it is capped at that number. A broader query ranks an
+ * arbitrary subset of its matches and should be narrowed.
+ */
+class ProductNameSearch {
+
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAX_TERMS = 8;
+    static final int MAX_CANDIDATES = 1000;
+
+    private static final String POSTGRES_QUERY = "query AS (SELECT to_tsquery('simple', ?) AS q)";
+
+    private static final RowMapper<ProductSearchHit> HIT_MAPPER = (rs, rowNum) -> {
+        Product product = new Product();
+        product.setId(rs.getLong("id"));
+        product.setProductCode(rs.getString("product_code"));
+        product.setProductName(rs.getString("product_name"));
+        product.setCategoryCode(rs.getString("category_code"));
+        product.setCreationDate(rs.getTimestamp("creation_date").toLocalDateTime());
+        return new ProductSearchHit(product, rs.getDouble("rank"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InsertIfAbsentJdbcSupport insertSupport;
+
+    ProductNameSearch(JdbcTemplate jdbcTemplate, InsertIfAbsentJdbcSupport insertSupport) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertSupport = insertSupport;
+    }
+
+    /**
+     * Splits a free-text query into lower-cased letter/digit terms; anything else is a separator.
+     */
+    static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = TERM.matcher(query == null ? "" : query.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terms.size() < MAX_TERMS) {
+            terms.add(matcher.group());
+        }
+        return terms;
+    }
+
+    Page<ProductSearchHit> search(List<String> terms, Pageable pageable) {
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        // Prefix query: "pain reli" becomes "pain:* & reli:*"; terms hold only letters and digits
+        boolean postgres = insertSupport.isPostgres();
+        List<Object> queryParameters = postgres
+                ? List.of(String.join(" & ", terms.stream().map(term -> term + ":*").toList()))
+                : List.of();
+        Branch productMatches = postgres
+                ? new Branch("ts_rank(p.search_vector, query.q)",
+                        " FROM products p CROSS JOIN query WHERE p.search_vector @@ query.q", List.of())
+                : wordStartBranch("CAST(1.0 AS DOUBLE PRECISION)", " FROM products p WHERE ", "p", terms);
+        Branch categoryMatches = postgres
+                ? new Branch("ts_rank(c.search_vector, query.q) * 0.5",
+                        " FROM categories c CROSS JOIN query JOIN products p ON p.category_code = c.category_code"
+                                + " WHERE c.search_vector @@ query.q", List.of())
+                : wordStartBranch("CAST(0.5 AS DOUBLE PRECISION)",
+                        " FROM categories c JOIN products p ON p.category_code = c.category_code WHERE ", "c", terms);
+
+        // The candidates of both branches, best first; the page and the total come from the same bounded set
+        List<Object> parameters = new ArrayList<>(queryParameters);
+        parameters.addAll(productMatches.parameters());
+        parameters.addAll(categoryMatches.parameters());
+        String hitsSql = "WITH " + (postgres ? POSTGRES_QUERY + ", " : "") + "hits AS (SELECT id, MAX(rank) AS rank FROM ("
+                + "(" + productMatches.bounded() + ") UNION ALL (" + categoryMatches.bounded() + ")"
+                + ") matches GROUP BY id ORDER BY rank DESC, id LIMIT " + MAX_CANDIDATES + ")";
+
+        List<Object> pageParameters = new ArrayList<>(parameters);
+        pageParameters.add(pageable.getPageSize());
+        pageParameters.add(pageable.getOffset());
+        String pageSql = hitsSql
+                + " SELECT p.id, p.product_code, p.product_name, p.category_code, p.creation_date, hits.rank"
+                + " FROM hits JOIN products p ON p.id = hits.id ORDER BY hits.rank DESC, p.id LIMIT ? OFFSET ?";
+        List<ProductSearchHit> content = jdbcTemplate.query(pageSql, HIT_MAPPER, pageParameters.toArray());
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(hitsSql + " SELECT COUNT(*) FROM hits", Long.class,
+                        parameters.toArray()));
+    }
+
+    /**
+     * Fallback match list: every term starts a word of the search_name column, which holds the lower-cased name
+     * as space-separated words behind a leading space.
+     */
+    private static Branch wordStartBranch(String rank, String from, String alias, List<String> terms) {
+        String column = alias + ".search_name";
+        List<Object> parameters = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        for (String term : terms) {
+            conditions.add(column + " LIKE ?");
+            parameters.add("% " + term + "%");
+        }
+        return new Branch(rank, from + String.join(" AND ", conditions), parameters);
+    }
+
+    /**
+     * One source of matches: the rank expression and the FROM/WHERE part, with the parameters of the latter.
+     */
+    private record Branch(String rank, String from, List<Object> parameters) {
+
+        // The first matches found, unordered, so the scan stops after them
+        String bounded() {
+            return "SELECT p.id, " + rank + " AS rank" + from + " LIMIT " + MAX_CANDIDATES;
+        }
+    }
+}
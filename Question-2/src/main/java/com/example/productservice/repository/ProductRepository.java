@@ -1,20 +1,97 @@
 package com.example.productservice.repository;
 
+import com.example.productservice.config.CacheConfig;
 import com.example.productservice.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#p0")
+    Optional<Product> findById(Long id);
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_CODE, key = "#p0")
     Optional<Product> findByProductCode(String productCode);
-    
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_CODE_EXISTS, key = "#p0")
     boolean existsByProductCode(String productCode);
     
     Page<Product> findByProductCodeContaining(String productCode, Pageable pageable);
-}
 
+    Page<Product> findByCategoryCode(String categoryCode, Pageable pageable);
+
+    /**
+     * Change feed batch: products with an id in the open range, as a primary key range scan without a count query.
+     */
+    Slice<Product> findByIdGreaterThanAndIdLessThanOrderByIdAsc(Long since, Long before, Pageable pageable);
+
+    /**
+     * First of the products after the given id created at or after the given time; a primary key range scan
+     * over the rows above the cursor.
+     */
+    Optional<Product> findFirstByIdGreaterThanAndCreationDateGreaterThanEqualOrderByIdAsc(Long id, LocalDateTime createdFrom);
+
+    /**
+     * Streams every product with its category name in id order through a server-side cursor.
+     * Each element is {@code [Product, String categoryName]}; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p, c.categoryName from Product p left join Category c on c.categoryCode = p.categoryCode order by p.id")
+    Stream<Object[]> streamAllWithCategoryName();
+
+    /**
+     * Those of the given codes that exist, for callers that skip known codes before an insert; an index lookup
+     * per code.
+     */
+    @Query("select p.productCode from Product p where p.productCode in :codes")
+    Set<String> findExistingProductCodes(Collection<String> codes);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = CacheConfig.PRODUCTS, key = "#result.id"),
+            @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = {CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCT_CODE_EXISTS}, key = "#p0.productCode")
+    })
+    <S extends Product> S save(S product);
+
+    // The insert and the category count update are two statements; they commit together
+    @Override
+    @Transactional
+    @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = {CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCT_CODE_EXISTS}, key = "#p0.productCode")
+    Optional<Product> insertIfAbsent(Product product);
+
+    @Override
+    @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = {CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCT_CODE_EXISTS}, key = "#p0.productCode")
+    Optional<Product> insertIfAbsentUncounted(Product product);
+
+    @Override
+    @Transactional
+    int insertAllIfAbsent(List<Product> products);
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheResolver = CacheConfig.AFTER_COMMIT, cacheNames = {CacheConfig.PRODUCTS, CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCT_CODE_EXISTS}, allEntries = true)
+    void deleteAll();
+}
@@ -0,0 +1,68 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.dto.ProductSearchHit;
+import com.example.productservice.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Atomic insert-if-absent operations for products, keyed on the unique product code, name search and field projections.
+ * The insert methods are the write paths that keep category_product_counts in step with the products table;
+ * the counted ones run in a transaction, so a product is never committed without its count.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Inserts the product in a single statement unless its product code already exists.
+     *
+     * @return the product with id and creation date set, or empty when the code is taken
+     */
+    Optional<Product> insertIfAbsent(Product product);
+
+    /**
+     * Same as {@link #insertIfAbsent(Product)} but leaves category_product_counts alone, for bulk callers that
+     * add up the inserted products and apply them with {@link #incrementCategoryProductCounts(Map)}.
+     */
+    Optional<Product> insertIfAbsentUncounted(Product product);
+
+    /**
+     * Adds the given number of products per category code to category_product_counts, in one batch.
+     */
+    void incrementCategoryProductCounts(Map<String, Long> deltas);
+
+    /**
+     * Inserts all products as one JDBC batch, skipping codes that already exist.
+     * Inserted products get their id and creation date set; skipped products keep a {@code null} id.
+     *
+     * @return number of inserted products
+     */
+    int insertAllIfAbsent(List<Product> products);
+
+    /**
+     * Ranked full-text search over product names and the names of their categories.
+     * Each word of the query must match the start of a word in either name. At most 1000 matches are ranked and
+     * counted, so the total is capped there.
+     *
+     * @return matching products, best match first; empty when the query contains no words
+     */
+    Page<ProductSearchHit> searchByName(String query, Pageable pageable);
+
+    /**
+     * Deletes all products with one statement and resets the per-category product counts.
+     */
+    void deleteAll();
+
+    /**
+     * Pages through products selecting only the given attributes, without loading entities.
+     *
+     * @param fields entity attribute names, in response order
+     * @param specification optional filter, may be {@code null}
+     * @return one map per row, keyed by attribute name
+     */
+    Page<Map<String, Object>> findAllFields(List<String> fields, Specification<Product> specification, Pageable pageable);
+}
@@ -0,0 +1,109 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.dto.ProductSearchHit;
+import com.example.productservice.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // The unique code column must come first
+    private static final String[] COLUMNS = {"product_code", "product_name", "category_code", "creation_date"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InsertIfAbsentJdbcSupport insertSupport;
+    private final FieldProjectionSupport<Product> fieldProjectionSupport;
+    private final CategoryProductCounter categoryProductCounter;
+    private final ProductNameSearch productNameSearch;
+
+    ProductRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertSupport = new InsertIfAbsentJdbcSupport(jdbcTemplate);
+        this.fieldProjectionSupport = new FieldProjectionSupport<>(entityManager, Product.class);
+        this.categoryProductCounter = new CategoryProductCounter(jdbcTemplate, insertSupport);
+        this.productNameSearch = new ProductNameSearch(jdbcTemplate, insertSupport);
+    }
+
+    @Override
+    public Optional<Product> insertIfAbsent(Product product) {
+        return insertIfAbsentUncounted(product)
+                .map(inserted -> {
+                    categoryProductCounter.increment(inserted.getCategoryCode());
+                    return inserted;
+                });
+    }
+
+    @Override
+    public Optional<Product> insertIfAbsentUncounted(Product product) {
+        return insertSupport.insertIfAbsent("products", COLUMNS, toRow(product))
+                .map(id -> {
+                    product.setId(id);
+                    return product;
+                });
+    }
+
+    @Override
+    public void incrementCategoryProductCounts(Map<String, Long> deltas) {
+        categoryProductCounter.incrementAll(deltas);
+    }
+
+    @Override
+    public int insertAllIfAbsent(List<Product> products) {
+        List<Long> ids = insertSupport.insertAllIfAbsent("products", COLUMNS,
+                products.stream().map(ProductRepositoryCustomImpl::toRow).toList());
+
+        int inserted = 0;
+        Map<String, Long> insertedPerCategory = new HashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(ids.get(i));
+            if (ids.get(i) != null) {
+                inserted++;
+                insertedPerCategory.merge(products.get(i).getCategoryCode(), 1L, Long::sum);
+            }
+        }
+
+        categoryProductCounter.incrementAll(insertedPerCategory);
+        return inserted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSearchHit> searchByName(String query, Pageable pageable) {
+        return productNameSearch.search(ProductNameSearch.terms(query), pageable);
+    }
+
+    @Override
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM products");
+        categoryProductCounter.clear();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findAllFields(List<String> fields, Specification<Product> specification, Pageable pageable) {
+        return fieldProjectionSupport.findAll(fields, specification, pageable);
+    }
+
+    private static Object[] toRow(Product product) {
+        if (product.getCreationDate() == null) {
+            product.setCreationDate(LocalDateTime.now());
+        }
+        return new Object[]{
+                product.getProductCode(),
+                product.getProductName(),
+                product.getCategoryCode(),
+                Timestamp.valueOf(product.getCreationDate())
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.productservice.repository;
+
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking reads of the catalog tables over R2DBC, for the reactive API.
+ * Paging and sorting follow the JPA repositories: the sort comes from SortFields (index-backed fields with id as
+ * tie-breaker) and the product code filter is a substring match with LIKE wildcards escaped.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveCatalogRepository {
+
+    private static final String PRODUCT_COLUMNS = "SELECT id, product_name, product_code, category_code, creation_date FROM products";
+    private static final String CATEGORY_COLUMNS = "SELECT id, category_name, category_code, creation_date FROM categories";
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<Product> findProducts(String productCodeContaining, Pageable pageable) {
+        if (productCodeContaining == null) {
+            return page(databaseClient.sql(PRODUCT_COLUMNS + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset"),
+                    pageable)
+                    .map(ReactiveCatalogRepository::toProduct)
+                    .all();
+        }
+
+        String pattern = "%" + EscapeCharacter.DEFAULT.escape(productCodeContaining) + "%";
+        return page(databaseClient.sql(PRODUCT_COLUMNS + " WHERE product_code LIKE :pattern ESCAPE '"
+                        + EscapeCharacter.DEFAULT.getEscapeCharacter() + "'"
+                        + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset"), pageable)
+                .bind("pattern", pattern)
+                .map(ReactiveCatalogRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Product> findProductById(Long id) {
+        return databaseClient.sql(PRODUCT_COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveCatalogRepository::toProduct)
+                .one();
+    }
+
+    public Flux<Category> findCategories(Pageable pageable) {
+        return page(databaseClient.sql(CATEGORY_COLUMNS + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset"),
+                pageable)
+                .map(ReactiveCatalogRepository::toCategory)
+                .all();
+    }
+
+    public Mono<Category> findCategoryById(Long id) {
+        return databaseClient.sql(CATEGORY_COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveCatalogRepository::toCategory)
+                .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec page(DatabaseClient.GenericExecuteSpec spec, Pageable pageable) {
+        return spec.bind("limit", pageable.getPageSize()).bind("offset", pageable.getOffset());
+    }
+
+    // Sort properties are validated against SortFields by the caller, so they map directly onto column names
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " ORDER BY id";
+        }
+        return sort.stream()
+                .map(order -> column(order.getProperty()) + " " + order.getDirection().name())
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    private static String column(String property) {
+        return property.replaceAll("([A-Z])", "_$1").toLowerCase(Locale.ROOT);
+    }
+
+    private static Product toProduct(Readable row) {
+        return new Product(row.get("id", Long.class), row.get("product_name", String.class),
+                row.get("product_code", String.class), row.get("category_code", String.class),
+                row.get("creation_date", LocalDateTime.class));
+    }
+
+    private static Category toCategory(Readable row) {
+        Category category = new Category();
+        category.setId(row.get("id", Long.class));
+        category.setCategoryName(row.get("category_name", String.class));
+        category.setCategoryCode(row.get("category_code", String.class));
+        category.setCreationDate(row.get("creation_date", LocalDateTime.class));
+        return category;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.BatchItemResult;
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.CatalogChangedEvent;
+import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Service for the create endpoints, single items and many per request.
+ * Codes that already exist are found with one IN query and reported per item without an insert, since a conflicting
+ * insert still draws an id from the PostgreSQL sequence. The other valid items are written with one JDBC batch of
+ * insert-if-absent statements, which stays correct under concurrency.
+ * Every create publishes its {@link CatalogChangedEvent} inside its transaction, so the table version is bumped
+ * in the same commit as the rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogBatchService {
+
+    // Keeps the JDBC batch and the response well within reasonable request limits
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Inserts the product unless its code exists.
+     *
+     * @return the created product, or empty when the code is taken
+     */
+    @Transactional
+    public Optional<Product> createProduct(Product product) {
+        Optional<Product> created = productRepository.insertIfAbsent(product);
+        created.ifPresent(inserted -> eventPublisher.publishEvent(CatalogChangedEvent.products()));
+        return created;
+    }
+
+    /**
+     * Inserts the category unless its code exists.
+     *
+     * @return the created category, or empty when the code is taken
+     */
+    @Transactional
+    public Optional<Category> createCategory(Category category) {
+        Optional<Category> created = categoryRepository.insertIfAbsent(category);
+        created.ifPresent(inserted -> eventPublisher.publishEvent(CatalogChangedEvent.categories()));
+        return created;
+    }
+
+    @Transactional
+    public List<BatchItemResult> createProducts(List<Product> products) {
+        List<BatchItemResult> results = createAll(products,
+                Product::getProductCode,
+                Product::getId,
+                product -> isBlank(product.getProductName()) ? "productName is required"
+                        : isBlank(product.getCategoryCode()) ? "categoryCode is required"
+                        : null,
+                productRepository::findExistingProductCodes,
+                productRepository::insertAllIfAbsent);
+
+        publishIfCreated(results, CatalogChangedEvent.products());
+        return results;
+    }
+
+    @Transactional
+    public List<BatchItemResult> createCategories(List<Category> categories) {
+        List<BatchItemResult> results = createAll(categories,
+                Category::getCategoryCode,
+                Category::getId,
+                category -> isBlank(category.getCategoryName()) ? "categoryName is required" : null,
+                categoryRepository::findExistingCategoryCodes,
+                categoryRepository::insertAllIfAbsent);
+
+        publishIfCreated(results, CatalogChangedEvent.categories());
+        return results;
+    }
+
+    private <T> List<BatchItemResult> createAll(List<T> items,
+                                                Function<T, String> codeOf,
+                                                Function<T, Long> idOf,
+                                                Function<T, String> validator,
+                                                Function<Collection<String>, Set<String>> findExisting,
+                                                ToIntFunction<List<T>> insertAllIfAbsent) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<Integer> insertIndexes = new ArrayList<>();
+        Set<String> batchCodes = new HashSet<>();
+
+        // Reject invalid items and duplicates within the request itself
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String code = item == null ? null : codeOf.apply(item);
+
+            if (item == null || isBlank(code)) {
+                results[i] = BatchItemResult.error(i, code, "code is required");
+                continue;
+            }
+            String validationError = validator.apply(item);
+            if (validationError != null) {
+                results[i] = BatchItemResult.error(i, code, validationError);
+            } else if (!batchCodes.add(code)) {
+                results[i] = BatchItemResult.duplicate(i, code, "Duplicate code in batch");
+            } else {
+                insertIndexes.add(i);
+            }
+        }
+
+        // One batch for every remaining item whose code is not known to exist; they keep a null id otherwise
+        Set<String> existingCodes = batchCodes.isEmpty() ? Set.of() : findExisting.apply(batchCodes);
+        List<T> rows = new ArrayList<>(insertIndexes.size());
+        for (int index : insertIndexes) {
+            T item = items.get(index);
+            if (!existingCodes.contains(codeOf.apply(item))) {
+                rows.add(item);
+            }
+        }
+        int created = rows.isEmpty() ? 0 : insertAllIfAbsent.applyAsInt(rows);
+
+        for (int index : insertIndexes) {
+            T item = items.get(index);
+            Long id = idOf.apply(item);
+            results[index] = id != null
+                    ? BatchItemResult.created(index, codeOf.apply(item), id)
+                    : BatchItemResult.duplicate(index, codeOf.apply(item), "Code already exists");
+        }
+
+        log.info("Batch of {} items: {} created, {} rejected", items.size(), created, items.size() - created);
+        return Arrays.asList(results);
+    }
+
+    private void publishIfCreated(List<BatchItemResult> results, CatalogChangedEvent event) {
+        if (results.stream().anyMatch(result -> result.status() == BatchItemResult.Status.CREATED)) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
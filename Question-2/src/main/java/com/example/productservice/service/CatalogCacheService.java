@@ -0,0 +1,132 @@
+package com.example.productservice.service;
+
+import com.example.productservice.config.CacheConfig;
+import com.example.productservice.config.ReplicaLagWindow;
+import com.example.productservice.entity.Category;
+import com.example.productservice.event.CatalogChangedEvent;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidates and reports on the product/category lookup caches.
+ * Single-row writes evict their own keys in the repositories and bulk writes (CSV import) clear the whole table's
+ * caches, both once the transaction has committed.
+ * Category changes also evict the Hibernate second-level and query caches, since categories are
+ * inserted through plain JDBC statements that Hibernate does not see.
+ * With a read replica, other clients may refill the caches from a replica that has not caught up with the write,
+ * so the same caches are cleared again once catalog.datasource.replica.max-lag has passed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheService {
+
+    private static final List<String> PRODUCT_CACHES = List.of(
+            CacheConfig.PRODUCTS, CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCT_CODE_EXISTS);
+
+    private static final List<String> CATEGORY_CACHES = List.of(
+            CacheConfig.CATEGORIES, CacheConfig.CATEGORIES_BY_CODE, CacheConfig.CATEGORY_CODE_EXISTS);
+
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<ReplicaLagWindow> replicaLagWindow;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        clear(event);
+        replicaLagWindow.ifAvailable(lagWindow -> CompletableFuture.runAsync(() -> clear(event),
+                CompletableFuture.delayedExecutor(lagWindow.maxLag().toMillis(), TimeUnit.MILLISECONDS)));
+    }
+
+    private void clear(CatalogChangedEvent event) {
+        List<String> cacheNames = event.table() == CatalogChangedEvent.Table.PRODUCTS
+                ? PRODUCT_CACHES
+                : CATEGORY_CACHES;
+
+        for (String cacheName : cacheNames) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+
+        if (event.table() == CatalogChangedEvent.Table.CATEGORIES) {
+            entityManagerFactory.getCache().evict(Category.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+        log.debug("Cleared {} caches", event.table());
+    }
+
+    /**
+     * Returns hit, miss and eviction counters for every Caffeine-backed cache.
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                statistics.put(cacheName, new CacheStatistics(
+                        nativeCache.estimatedSize(),
+                        stats.hitCount(),
+                        stats.missCount(),
+                        stats.evictionCount(),
+                        stats.hitRate()));
+            }
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Returns hit, miss and put counters for every Hibernate second-level and query cache region.
+     */
+    public Map<String, RegionStatistics> getSecondLevelStatistics() {
+        Statistics hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStatistics> statistics = new LinkedHashMap<>();
+
+        for (String regionName : hibernateStatistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = hibernateStatistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                long lookups = region.getHitCount() + region.getMissCount();
+                statistics.put(regionName, new RegionStatistics(
+                        region.getHitCount(),
+                        region.getMissCount(),
+                        region.getPutCount(),
+                        lookups == 0 ? 0.0 : (double) region.getHitCount() / lookups));
+            }
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Snapshot of a single cache's counters.
+     */
+    public record CacheStatistics(long size, long hits, long misses, long evictions, double hitRate) {
+    }
+
+    /**
+     * Snapshot of a single Hibernate cache region's counters.
+     */
+    public record RegionStatistics(long hits, long misses, long puts, double hitRate) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.productservice.service;
+
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.stream.Stream;
+
+/**
+ * Service for exporting the full product and category tables.
+ * Rows are read through a database cursor and written straight to the output,
+ * detaching each entity after it is written, so memory use does not grow with table size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogExportService {
+
+    // Same column layout as the import file, so an export can be re-imported as-is
+    private static final String[] PRODUCT_HEADER =
+            {"PRODUCT_CODE", "PRODUCT_NAME", "PRODUCT_CATEGORY_CODE", "CATEGORY_CODE", "CATEGORY_NAME"};
+    private static final String[] CATEGORY_HEADER = {"CATEGORY_CODE", "CATEGORY_NAME"};
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportProducts(ExportFormat format, Writer writer) throws IOException {
+        long rows = 0;
+
+        try (Stream<Object[]> stream = productRepository.streamAllWithCategoryName()) {
+            RowWriter rowWriter = newRowWriter(format, writer, PRODUCT_HEADER);
+            for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                Product product = (Product) row[0];
+                String categoryName = (String) row[1];
+
+                if (format == ExportFormat.CSV) {
+                    // Only the product's own category code is stored, so it fills both category code columns
+                    rowWriter.csv(product.getProductCode(), product.getProductName(),
+                            product.getCategoryCode(), product.getCategoryCode(), categoryName);
+                } else {
+                    rowWriter.json(product);
+                }
+
+                entityManager.detach(product);
+                rows++;
+            }
+            rowWriter.flush();
+        }
+
+        log.info("Exported {} products as {}", rows, format);
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCategories(ExportFormat format, Writer writer) throws IOException {
+        long rows = 0;
+
+        try (Stream<Category> stream = categoryRepository.streamAll()) {
+            RowWriter rowWriter = newRowWriter(format, writer, CATEGORY_HEADER);
+            for (Category category : (Iterable<Category>) stream::iterator) {
+                if (format == ExportFormat.CSV) {
+                    rowWriter.csv(category.getCategoryCode(), category.getCategoryName());
+                } else {
+                    rowWriter.json(category);
+                }
+
+                entityManager.detach(category);
+                rows++;
+            }
+            rowWriter.flush();
+        }
+
+        log.info("Exported {} categories as {}", rows, format);
+        return rows;
+    }
+
+    private RowWriter newRowWriter(ExportFormat format, Writer writer, String[] header) throws IOException {
+        CSVPrinter csvPrinter = format == ExportFormat.CSV
+                ? new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(header).build())
+                : null;
+        return new RowWriter(writer, csvPrinter);
+    }
+
+    /**
+     * Writes single rows either as CSV records or as one JSON document per line.
+     */
+    private class RowWriter {
+
+        private final Writer writer;
+        private final CSVPrinter csvPrinter;
+
+        RowWriter(Writer writer, CSVPrinter csvPrinter) {
+            this.writer = writer;
+            this.csvPrinter = csvPrinter;
+        }
+
+        void csv(Object... values) throws IOException {
+            csvPrinter.printRecord(values);
+        }
+
+        void json(Object value) throws IOException {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        }
+
+        void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Supported export encodings.
+     */
+    public enum ExportFormat {
+        CSV(new MediaType("text", "csv")),
+        NDJSON(MediaType.APPLICATION_NDJSON);
+
+        private final MediaType mediaType;
+
+        ExportFormat(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.productservice.service;
+
+import com.example.productservice.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-table change marker used as HTTP validator (ETag / Last-Modified).
+ * The version lives in the catalog_versions table and is bumped in the transaction of every create or import,
+ * so all instances agree on it and an unchanged version means an unchanged table: read endpoints can answer 304
+ * without running their query.
+ * Versions are served from memory. Commits on this instance invalidate them; writes by other instances are picked
+ * up when the copy is older than catalog.versions.refresh-interval, so the database sees at most one lookup per
+ * interval. That lookup runs outside a transaction and so stays on the primary even with a read replica; it is
+ * counted by the catalog.versions.loads meter.
+ */
+@Service
+public class CatalogVersionService {
+
+    private static final String BUMP_SQL =
+            "UPDATE catalog_versions SET version = version + 1, last_modified = ? WHERE table_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long refreshIntervalNanos;
+    private final Counter loads;
+
+    // Loaded versions, null once invalidated; a load only stores its result if no commit happened meanwhile
+    private volatile Snapshot snapshot;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CatalogVersionService(JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${catalog.versions.refresh-interval:1s}") Duration refreshInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.loads = Counter.builder("catalog.versions.loads")
+                .description("Lookups of the catalog_versions table on the primary")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Collects the changed tables of the writing transaction and bumps each of them once just before it commits,
+     * so the version rows are locked only for the commit itself. Writes made outside a transaction bump right away.
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(EnumSet.of(event.table()));
+            invalidate();
+            return;
+        }
+
+        PendingBump pending = (PendingBump) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingBump();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.tables.add(event.table());
+    }
+
+    public Version current(CatalogChangedEvent.Table table) {
+        return combined(table);
+    }
+
+    /**
+     * Version of a response built from several tables: it changes whenever any of them changes.
+     */
+    public Version combined(CatalogChangedEvent.Table... tables) {
+        Map<CatalogChangedEvent.Table, Version> versions = versions();
+        long counter = 0;
+        long lastModified = 0;
+        StringJoiner names = new StringJoiner("+");
+        StringJoiner counters = new StringJoiner(".");
+        for (CatalogChangedEvent.Table table : tables) {
+            Version version = versions.get(table);
+            counter += version.counter();
+            lastModified = Math.max(lastModified, version.lastModified());
+            names.add(table.name().toLowerCase());
+            counters.add(Long.toString(version.counter()));
+        }
+
+        // The change time keeps versions apart when the table is recreated and its counter starts again
+        return new Version(counter, names + "-" + counters + "-" + Long.toHexString(lastModified), lastModified);
+    }
+
+    // Drops the in-memory versions so the next request loads them again
+    private void invalidate() {
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Map<CatalogChangedEvent.Table, Version> versions() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAtNanos() < refreshIntervalNanos) {
+            return current.versions();
+        }
+
+        long invalidationsBefore = invalidations.get();
+        long loadedAtNanos = System.nanoTime();
+        Map<CatalogChangedEvent.Table, Version> versions = load();
+        if (invalidations.get() == invalidationsBefore) {
+            snapshot = new Snapshot(versions, loadedAtNanos);
+        }
+        return versions;
+    }
+
+    private Map<CatalogChangedEvent.Table, Version> load() {
+        loads.increment();
+        Map<CatalogChangedEvent.Table, Version> versions = new EnumMap<>(CatalogChangedEvent.Table.class);
+        jdbcTemplate.query("SELECT table_name, version, last_modified FROM catalog_versions", rs -> {
+            CatalogChangedEvent.Table table = CatalogChangedEvent.Table.valueOf(rs.getString("table_name"));
+            versions.put(table, new Version(rs.getLong("version"), table.name().toLowerCase(),
+                    rs.getTimestamp("last_modified").getTime()));
+        });
+        return versions;
+    }
+
+    // In enum order, so concurrent writers of both tables lock the version rows in the same order
+    private void bump(Set<CatalogChangedEvent.Table> tables) {
+        Timestamp now = Timestamp.from(Instant.now());
+        for (CatalogChangedEvent.Table table : tables) {
+            jdbcTemplate.update(BUMP_SQL, now, table.name());
+        }
+    }
+
+    private record Snapshot(Map<CatalogChangedEvent.Table, Version> versions, long loadedAtNanos) {
+    }
+
+    /**
+     * Tables changed by the current transaction.
+     */
+    private class PendingBump implements TransactionSynchronization {
+
+        private final Set<CatalogChangedEvent.Table> tables = EnumSet.noneOf(CatalogChangedEvent.Table.class);
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            bump(tables);
+        }
+
+        @Override
+        public void afterCommit() {
+            invalidate();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersionService.this);
+        }
+    }
+
+    /**
+     * Version counter of a table (or the sum over several), its entity tag and the time of its last change
+     * (epoch millis).
+     */
+    public record Version(long counter, String tag, long lastModified) {
+
+        /**
+         * Strong ETag of one representation; JSON, CBOR and Smile bodies of the same version differ in bytes.
+         */
+        public String etag(String representation) {
+            return "\"" + tag + "-" + representation + "\"";
+        }
+    }
+}
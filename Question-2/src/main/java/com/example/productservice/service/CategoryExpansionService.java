@@ -0,0 +1,38 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.ProductWithCategory;
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the categories of a page of products with a single IN query on the unique category code,
+ * instead of one lookup per product.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryExpansionService {
+
+    private final CategoryRepository categoryRepository;
+
+    public Page<ProductWithCategory> withCategories(Page<Product> products) {
+        Set<String> categoryCodes = products.stream()
+                .map(Product::getCategoryCode)
+                .collect(Collectors.toSet());
+
+        Map<String, Category> categoriesByCode = categoryCodes.isEmpty()
+                ? Map.of()
+                : categoryRepository.findByCategoryCodeIn(categoryCodes).stream()
+                        .collect(Collectors.toMap(Category::getCategoryCode, Function.identity()));
+
+        return products.map(product -> new ProductWithCategory(product, categoriesByCode.get(product.getCategoryCode())));
+    }
+}
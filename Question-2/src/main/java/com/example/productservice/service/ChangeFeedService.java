@@ -0,0 +1,76 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.ChangeFeed;
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Change feed batches for products and categories, read by id cursor.
+ * Ids are assigned at insert time but become visible at commit, so a row of a transaction still open during a
+ * sync can commit below a cursor the client has already stored. To leave such transactions time to commit,
+ * a batch stops before the first row created within catalog.changes.settle-time; those rows come in a later
+ * batch. Transactions running longer than the settle time (e.g. a large CSV import) can still be missed.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ChangeFeedService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final Duration settleTime;
+
+    public ChangeFeedService(ProductRepository productRepository,
+                             CategoryRepository categoryRepository,
+                             @Value("${catalog.changes.settle-time:30s}") Duration settleTime) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.settleTime = settleTime;
+    }
+
+    public ChangeFeed<Product> productChanges(long since, int limit) {
+        long before = firstUnsettledId(createdFrom -> productRepository
+                .findFirstByIdGreaterThanAndCreationDateGreaterThanEqualOrderByIdAsc(since, createdFrom)
+                .map(Product::getId));
+        return ChangeFeed.of(productRepository.findByIdGreaterThanAndIdLessThanOrderByIdAsc(since, before, page(limit)),
+                since, Product::getId);
+    }
+
+    public ChangeFeed<Category> categoryChanges(long since, int limit) {
+        long before = firstUnsettledId(createdFrom -> categoryRepository
+                .findFirstByIdGreaterThanAndCreationDateGreaterThanEqualOrderByIdAsc(since, createdFrom)
+                .map(Category::getId));
+        return ChangeFeed.of(categoryRepository.findByIdGreaterThanAndIdLessThanOrderByIdAsc(since, before, page(limit)),
+                since, Category::getId);
+    }
+
+    /**
+     * Whether a batch read now may still hold back rows written at the given time (epoch millis), so that the same
+     * request can return more rows later without any further write.
+     */
+    public boolean mayHoldBack(long writtenAtMillis) {
+        return !settleTime.isZero() && System.currentTimeMillis() - writtenAtMillis <= settleTime.toMillis();
+    }
+
+    private long firstUnsettledId(Function<LocalDateTime, Optional<Long>> firstCreatedFrom) {
+        if (settleTime.isZero()) {
+            return Long.MAX_VALUE;
+        }
+        return firstCreatedFrom.apply(LocalDateTime.now().minus(settleTime)).orElse(Long.MAX_VALUE);
+    }
+
+    private static Pageable page(int limit) {
+        return PageRequest.of(0, Math.max(1, Math.min(limit, ChangeFeed.MAX_LIMIT)));
+    }
+}
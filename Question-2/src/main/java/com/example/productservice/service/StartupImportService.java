@@ -0,0 +1,116 @@
+package com.example.productservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+
+/**
+ * Runs the boot-time CSV import, by default on a background thread so the application starts serving at once.
+ * While the import runs the readiness state is REFUSING_TRAFFIC (liveness is untouched); it flips to
+ * ACCEPTING_TRAFFIC once the import has finished, whether it succeeded or not.
+ * The import is incremental by default, so restarts with an unchanged file only hash it.
+ */
+@Service
+@Slf4j
+public class StartupImportService {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED, SKIPPED
+    }
+
+    private final CsvImportService csvImportService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String filePath;
+    private final boolean async;
+    private final boolean serveReadsDuringImport;
+    private final boolean incremental;
+    private final CsvImportService.ParseMode parseMode;
+    private final TaskExecutor executor = new SimpleAsyncTaskExecutor("csv-import-");
+
+    private volatile Status status = Status.PENDING;
+    private volatile CsvImportService.ImportResult result;
+
+    public StartupImportService(CsvImportService csvImportService,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${catalog.import.file:TestExampleFile.csv}") String filePath,
+                                @Value("${catalog.import.async:true}") boolean async,
+                                @Value("${catalog.import.serve-reads-during-import:true}") boolean serveReadsDuringImport,
+                                @Value("${catalog.import.incremental:true}") boolean incremental,
+                                @Value("${catalog.import.parse-mode:STANDARD}") CsvImportService.ParseMode parseMode) {
+        this.csvImportService = csvImportService;
+        this.eventPublisher = eventPublisher;
+        this.filePath = filePath;
+        this.async = async;
+        this.serveReadsDuringImport = serveReadsDuringImport;
+        this.incremental = incremental;
+        this.parseMode = parseMode;
+    }
+
+    /**
+     * Starts the import of the configured file, or marks it skipped when the file is missing.
+     */
+    public void start() {
+        if (!new File(filePath).exists()) {
+            log.warn("CSV file not found at: {}. Skipping import.", filePath);
+            finish(Status.SKIPPED);
+            return;
+        }
+
+        status = Status.RUNNING;
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        if (async) {
+            log.info("Starting background CSV import from: {}", filePath);
+            executor.execute(this::runImport);
+        } else {
+            log.info("Starting CSV import from: {}", filePath);
+            runImport();
+        }
+    }
+
+    /**
+     * True only while an import runs. PENDING does not count: when {@link #start()} is never called (no runner,
+     * sliced test contexts) nothing would ever move the status on, and readiness and writes would stay blocked.
+     * Spring Boot itself only reports ready after the runner has called {@link #start()}.
+     */
+    public boolean isImportInProgress() {
+        return status == Status.RUNNING;
+    }
+
+    public boolean isServeReadsDuringImport() {
+        return serveReadsDuringImport;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public CsvImportService.ImportResult getResult() {
+        return result;
+    }
+
+    private void runImport() {
+        try {
+            result = incremental
+                    ? csvImportService.importIncremental(filePath, parseMode)
+                    : csvImportService.importFromCsv(filePath, parseMode);
+            log.info("CSV import completed: {}", result);
+            finish(Status.COMPLETED);
+        } catch (Exception e) {
+            log.error("CSV import from {} failed", filePath, e);
+            finish(Status.FAILED);
+        }
+    }
+
+    private void finish(Status finalStatus) {
+        status = finalStatus;
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+}
@@ -0,0 +1,393 @@
+package com.example.productservice.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Memory-compact set of codes for de-duplication.
+ * Numeric codes of up to 17 digits (e.g. "0000000001") are packed together with their length into a single
+ * primitive long. The most recent codes sit in an open-addressing hash table that starts at 16 KB and doubles up
+ * to 1 MB, so small sets such as the category codes stay small. Whenever it holds 65536 codes they are sorted into
+ * a run that stores only the varint-encoded gaps between neighbouring codes, with every 64th code kept in a block
+ * index for binary search. Runs are merged like a binary counter, so there are at most about
+ * log2(n / 65536) of them. Dense codes (sequential ids, or 100M codes spread over ten digits) take one to two
+ * bytes each, sparse ones at most ten, instead of ~100 bytes for a String in a HashSet; a merge briefly holds
+ * the two runs and their result. Other codes fall back to a HashSet.
+ */
+public class CompactCodeSet {
+
+    private static final int MAX_NUMERIC_DIGITS = 17;
+    private static final int LENGTH_SHIFT = 57;
+    private static final long EMPTY = 0L;
+
+    private static final int DEFAULT_BUFFER_CODES = 1 << 16;
+    private static final int INITIAL_BUFFER_CODES = 1 << 10;
+    private static final int BLOCK_CODES = 64;
+    private static final long MAX_RUN_BYTES = Integer.MAX_VALUE - 8;
+
+    private final int bufferCodes;
+    private long[] buffer;
+    private int bufferSize;
+    // Oldest and largest first
+    private final List<PackedRun> runs = new ArrayList<>();
+    private long packedSize;
+    private final Set<String> otherCodes = new HashSet<>();
+
+    public CompactCodeSet() {
+        this(DEFAULT_BUFFER_CODES);
+    }
+
+    /**
+     * @param bufferCodes numeric codes collected in the hash table before they are packed into a run
+     */
+    CompactCodeSet(int bufferCodes) {
+        this.bufferCodes = bufferCodes;
+        this.buffer = new long[tableLength(Math.min(bufferCodes, INITIAL_BUFFER_CODES))];
+    }
+
+    /**
+     * Adds the code.
+     *
+     * @return true if the code was not present yet
+     * @throws IllegalStateException if the numeric codes no longer fit into a single packed run
+     */
+    public boolean add(String code) {
+        long key = pack(code);
+        if (key == EMPTY) {
+            return otherCodes.add(code);
+        }
+
+        if (bufferContains(key) || packedContains(key)) {
+            return false;
+        }
+        insert(buffer, key);
+        if (++bufferSize == bufferCodes) {
+            flush();
+        } else if (bufferSize * 2 >= buffer.length) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(String code) {
+        long key = pack(code);
+        if (key == EMPTY) {
+            return otherCodes.contains(code);
+        }
+        return bufferContains(key) || packedContains(key);
+    }
+
+    public long size() {
+        return bufferSize + packedSize + otherCodes.size();
+    }
+
+    /**
+     * Packs a numeric code into a positive long: digit count in the top bits, numeric value below.
+     * Keeping the length distinguishes "01" from "1". Returns {@link #EMPTY} for codes that do not fit.
+     */
+    private static long pack(String code) {
+        int length = code.length();
+        if (length == 0 || length > MAX_NUMERIC_DIGITS) {
+            return EMPTY;
+        }
+
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return ((long) length << LENGTH_SHIFT) | value;
+    }
+
+    private boolean bufferContains(long key) {
+        int mask = buffer.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long current = buffer[slot];
+            if (current == EMPTY) {
+                return false;
+            }
+            if (current == key) {
+                return true;
+            }
+        }
+    }
+
+    private boolean packedContains(long key) {
+        for (PackedRun run : runs) {
+            if (run.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the buffered codes into a new run, then merges runs until each is larger than the next.
+     */
+    private void flush() {
+        long[] keys = new long[bufferSize];
+        int count = 0;
+        for (long key : buffer) {
+            if (key != EMPTY) {
+                keys[count++] = key;
+            }
+        }
+        Arrays.sort(keys);
+        PackedRun run = PackedRun.of(() -> new ArrayCursor(keys), keys.length);
+        Arrays.fill(buffer, EMPTY);
+        packedSize += bufferSize;
+        bufferSize = 0;
+
+        runs.add(run);
+        while (runs.size() > 1 && runs.get(runs.size() - 2).size <= runs.get(runs.size() - 1).size) {
+            PackedRun older = runs.get(runs.size() - 2);
+            PackedRun newer = runs.get(runs.size() - 1);
+            PackedRun merged = PackedRun.of(() -> new MergeCursor(older.cursor(), newer.cursor()),
+                    older.size + newer.size);
+            runs.subList(runs.size() - 2, runs.size()).clear();
+            runs.add(merged);
+        }
+    }
+
+    // Load factor of at most 0.5 keeps probe sequences short
+    private static int tableLength(int codes) {
+        return Integer.highestOneBit(Math.max(8, codes * 2 - 1)) << 1;
+    }
+
+    private static void insert(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = slot(key, mask);
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+    }
+
+    // Only reached below bufferCodes: the largest table holds twice as many slots
+    private void grow() {
+        long[] grown = new long[buffer.length * 2];
+        for (long key : buffer) {
+            if (key != EMPTY) {
+                insert(grown, key);
+            }
+        }
+        buffer = grown;
+    }
+
+    // Slots of the hash table, for tests
+    int bufferCapacity() {
+        return buffer.length;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Ascending stream of packed codes.
+     */
+    private interface Cursor {
+
+        boolean hasNext();
+
+        long next();
+    }
+
+    private interface CursorSource {
+
+        Cursor open();
+    }
+
+    private static final class ArrayCursor implements Cursor {
+
+        private final long[] keys;
+        private int index;
+
+        ArrayCursor(long[] keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        public long next() {
+            return keys[index++];
+        }
+    }
+
+    // The runs of one set never share a code, so merging is a plain interleave
+    private static final class MergeCursor implements Cursor {
+
+        private final Cursor left;
+        private final Cursor right;
+        private long leftKey;
+        private long rightKey;
+
+        MergeCursor(Cursor left, Cursor right) {
+            this.left = left;
+            this.right = right;
+            this.leftKey = left.hasNext() ? left.next() : EMPTY;
+            this.rightKey = right.hasNext() ? right.next() : EMPTY;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leftKey != EMPTY || rightKey != EMPTY;
+        }
+
+        @Override
+        public long next() {
+            long key;
+            if (rightKey == EMPTY || (leftKey != EMPTY && leftKey < rightKey)) {
+                key = leftKey;
+                leftKey = left.hasNext() ? left.next() : EMPTY;
+            } else {
+                key = rightKey;
+                rightKey = right.hasNext() ? right.next() : EMPTY;
+            }
+            return key;
+        }
+    }
+
+    /**
+     * Immutable sorted run: the first code of every block in {@link #blockKeys}, the gaps to the following codes
+     * of the block as unsigned varints in {@link #data}.
+     */
+    private static final class PackedRun {
+
+        private final long size;
+        private final long lastKey;
+        private final long[] blockKeys;
+        private final int[] blockOffsets;
+        private final byte[] data;
+
+        private PackedRun(long size, long lastKey, long[] blockKeys, int[] blockOffsets, byte[] data) {
+            this.size = size;
+            this.lastKey = lastKey;
+            this.blockKeys = blockKeys;
+            this.blockOffsets = blockOffsets;
+            this.data = data;
+        }
+
+        /**
+         * Encodes the codes of the source, read twice: once to size the arrays, once to fill them.
+         */
+        static PackedRun of(CursorSource source, long size) {
+            long bytes = 0;
+            long index = 0;
+            long previous = 0;
+            for (Cursor cursor = source.open(); cursor.hasNext(); index++) {
+                long key = cursor.next();
+                if (index % BLOCK_CODES != 0) {
+                    bytes += varintLength(key - previous);
+                }
+                previous = key;
+            }
+            if (bytes > MAX_RUN_BYTES) {
+                throw new IllegalStateException("Too many numeric codes for CompactCodeSet: " + size
+                        + " codes would need a run of " + bytes + " bytes, the limit is " + MAX_RUN_BYTES);
+            }
+
+            int blocks = (int) ((size + BLOCK_CODES - 1) / BLOCK_CODES);
+            long[] blockKeys = new long[blocks];
+            int[] blockOffsets = new int[blocks];
+            byte[] data = new byte[(int) bytes];
+            int offset = 0;
+            index = 0;
+            for (Cursor cursor = source.open(); cursor.hasNext(); index++) {
+                long key = cursor.next();
+                if (index % BLOCK_CODES == 0) {
+                    int block = (int) (index / BLOCK_CODES);
+                    blockKeys[block] = key;
+                    blockOffsets[block] = offset;
+                } else {
+                    for (long gap = key - previous; ; gap >>>= 7) {
+                        if (gap < 0x80) {
+                            data[offset++] = (byte) gap;
+                            break;
+                        }
+                        data[offset++] = (byte) (gap | 0x80);
+                    }
+                }
+                previous = key;
+            }
+            return new PackedRun(size, previous, blockKeys, blockOffsets, data);
+        }
+
+        boolean contains(long key) {
+            if (key < blockKeys[0] || key > lastKey) {
+                return false;
+            }
+
+            int block = Arrays.binarySearch(blockKeys, key);
+            if (block >= 0) {
+                return true;
+            }
+            block = -block - 2;
+            long current = blockKeys[block];
+            int offset = blockOffsets[block];
+            int end = block + 1 < blockKeys.length ? blockOffsets[block + 1] : data.length;
+            while (offset < end) {
+                long gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[offset++];
+                    gap |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                current += gap;
+                if (current >= key) {
+                    return current == key;
+                }
+            }
+            return false;
+        }
+
+        Cursor cursor() {
+            return new Cursor() {
+                private long index;
+                private int offset;
+                private long current;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public long next() {
+                    if (index % BLOCK_CODES == 0) {
+                        current = blockKeys[(int) (index / BLOCK_CODES)];
+                    } else {
+                        long gap = 0;
+                        int shift = 0;
+                        byte b;
+                        do {
+                            b = data[offset++];
+                            gap |= (long) (b & 0x7F) << shift;
+                            shift += 7;
+                        } while (b < 0);
+                        current += gap;
+                    }
+                    index++;
+                    return current;
+                }
+            };
+        }
+
+        private static int varintLength(long value) {
+            return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7);
+        }
+    }
+}
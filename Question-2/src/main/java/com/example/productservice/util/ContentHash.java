@@ -0,0 +1,62 @@
+package com.example.productservice.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 content hashes, hex encoded, for fingerprinting imported files and chunks of their rows.
+ */
+public class ContentHash {
+
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char RECORD_SEPARATOR = '\u001e';
+
+    private final MessageDigest digest = newDigest();
+
+    /**
+     * Hashes the raw bytes of a file without parsing it.
+     */
+    public static String of(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds one parsed record; separators keep {@code ["ab", "c"]} and {@code ["a", "bc"]} apart.
+     */
+    public void addRecord(Iterable<String> values) {
+        StringBuilder record = new StringBuilder();
+        for (String value : values) {
+            record.append(value).append(FIELD_SEPARATOR);
+        }
+        record.append(RECORD_SEPARATOR);
+        digest.update(record.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the hash of the records added so far and resets for the next chunk.
+     */
+    public String finish() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productservice.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registry of the fields an entity exposes for sparse fieldsets ({@code fields=productCode,productName}).
+ */
+public final class FieldSelection {
+
+    public static final FieldSelection PRODUCTS = new FieldSelection(
+            Set.of("id", "productCode", "productName", "categoryCode", "creationDate"));
+
+    public static final FieldSelection CATEGORIES = new FieldSelection(
+            Set.of("id", "categoryCode", "categoryName", "creationDate"));
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma-separated field list, keeping the requested order and dropping repeats.
+     *
+     * @return the fields, or empty if the list is blank or names an unknown field
+     */
+    public Optional<List<String>> parse(String fieldList) {
+        List<String> selected = new ArrayList<>();
+        for (String field : fieldList.split(",")) {
+            String name = field.trim();
+            if (!fields.contains(name)) {
+                return Optional.empty();
+            }
+            if (!selected.contains(name)) {
+                selected.add(name);
+            }
+        }
+        return Optional.of(selected);
+    }
+}
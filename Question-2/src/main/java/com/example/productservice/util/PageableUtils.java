@@ -19,21 +19,33 @@ public class PageableUtils {
      * 
      * @param page Page number (0-based)
      * @param size Number of items per page
-     * @param sortBy Field name to sort by
+     * @param sortBy Field name to sort by, must be supported by sortFields
      * @param sortDirection Sort direction ("ASC" or "DESC")
+     * @param sortFields Sort fields allowed for the entity
      * @return Pageable object configured with the specified parameters
+     * @throws IllegalArgumentException if sortBy is not a supported sort field
      */
-    public static Pageable createPageable(int page, int size, String sortBy, String sortDirection) {
+    public static Pageable createPageable(int page, int size, String sortBy, String sortDirection, SortFields sortFields) {
         // Validate page and size parameters
         int validatedPage = Math.max(0, page);
         int validatedSize = Math.max(1, Math.min(size, 100)); // Cap at 100 items per page
         
-        // Create sort object based on direction
-        Sort sort = sortDirection.equalsIgnoreCase("DESC") 
-                ? Sort.by(sortBy).descending() 
-                : Sort.by(sortBy).ascending();
+        // Create sort object based on direction, restricted to indexed fields
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("DESC") 
+                ? Sort.Direction.DESC 
+                : Sort.Direction.ASC;
         
-        return PageRequest.of(validatedPage, validatedSize, sort);
+        return PageRequest.of(validatedPage, validatedSize, sortFields.sort(sortBy, direction));
     }
-}
 
+    /**
+     * Creates an unsorted Pageable, for queries that define their own order (e.g. search rank).
+     *
+     * @param page Page number (0-based)
+     * @param size Number of items per page
+     * @return Pageable object with validated page and size
+     */
+    public static Pageable createPageable(int page, int size) {
+        return PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, 100)));
+    }
+}
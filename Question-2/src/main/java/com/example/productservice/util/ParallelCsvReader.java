@@ -0,0 +1,288 @@
+package com.example.productservice.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reads a CSV file by memory-mapping it and parsing byte ranges on several threads.
+ * The file is split into ranges that end on line boundaries; ranges are parsed in parallel and their records
+ * handed out in file order, with at most two ranges per thread parsed ahead of the consumer.
+ * Follows {@code CSVFormat.DEFAULT} (comma separated, double-quote quoting, empty lines skipped) for files
+ * with one record per line: a quoted value spanning lines fails the read.
+ * Ranges are parsed on a caller-supplied executor, typically one shared by all readers (see {@link #newExecutor});
+ * the reader never shuts it down.
+ */
+public class ParallelCsvReader implements Iterable<String[]>, Closeable {
+
+    public static final int DEFAULT_RANGE_BYTES = 8 * 1024 * 1024;
+
+    private static final int BOUNDARY_SCAN_BYTES = 8 * 1024;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final FileChannel channel;
+    private final ExecutorService executor;
+    private final int lookahead;
+    private final List<String> header;
+    private final Deque<long[]> pendingRanges = new ArrayDeque<>();
+    private final Deque<Future<List<String[]>>> parsedRanges = new ArrayDeque<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Fixed pool of daemon parse threads to share between readers.
+     */
+    public static ExecutorService newExecutor(int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "csv-parse");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param parallelism number of the executor's threads this reader should keep busy
+     */
+    public ParallelCsvReader(Path file, ExecutorService executor, int parallelism) throws IOException {
+        this(file, executor, parallelism, DEFAULT_RANGE_BYTES);
+    }
+
+    public ParallelCsvReader(Path file, ExecutorService executor, int parallelism, int rangeBytes) throws IOException {
+        if (parallelism < 1 || rangeBytes < 1) {
+            throw new IllegalArgumentException("parallelism and rangeBytes must be positive");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long headerEnd = nextLineStart(0, size);
+            List<String[]> headerRecords = parseRange(0, headerEnd);
+            this.header = headerRecords.isEmpty() ? List.of() : List.of(headerRecords.get(0));
+            for (long start = headerEnd; start < size; ) {
+                long end = start + rangeBytes >= size ? size : nextLineStart(start + rangeBytes, size);
+                pendingRanges.add(new long[]{start, end});
+                start = end;
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.executor = executor;
+        this.lookahead = parallelism * 2;
+    }
+
+    /**
+     * Column names from the first line of the file.
+     */
+    public List<String> header() {
+        return header;
+    }
+
+    /**
+     * Records after the header, in file order. Can only be iterated once.
+     *
+     * @throws UncheckedIOException from the iterator if a range cannot be read or parsed
+     */
+    @Override
+    public Iterator<String[]> iterator() {
+        return new Iterator<>() {
+            private Iterator<String[]> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    submitRanges();
+                    if (parsedRanges.isEmpty()) {
+                        return false;
+                    }
+                    current = await(parsedRanges.poll()).iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public String[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    /**
+     * Stops parsing ahead and closes the file once ranges already being parsed have finished, waiting at most
+     * {@code CLOSE_TIMEOUT} for them. Queued ranges are skipped.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        pendingRanges.clear();
+        long deadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+        try {
+            for (Future<List<String[]>> range : parsedRanges) {
+                range.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The reader is being discarded: a failed range no longer matters, a stuck one must not block close
+        } finally {
+            parsedRanges.clear();
+            channel.close();
+        }
+    }
+
+    private void submitRanges() {
+        while (parsedRanges.size() < lookahead && !pendingRanges.isEmpty()) {
+            long[] range = pendingRanges.poll();
+            parsedRanges.add(executor.submit(() -> closed ? List.<String[]>of() : parseRange(range[0], range[1])));
+        }
+    }
+
+    private static List<String[]> await(Future<List<String[]>> range) {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing CSV", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw new IllegalStateException("Failed to parse CSV", e.getCause());
+        }
+    }
+
+    /**
+     * Offset just after the first line feed at or after {@code position}, or the file size if there is none.
+     */
+    private long nextLineStart(long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        for (long offset = position; offset < size; ) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private List<String[]> parseRange(long start, long end) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        if (start == end) {
+            return records;
+        }
+
+        MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        LineParser parser = new LineParser();
+        int limit = range.limit();
+        for (int lineStart = 0; lineStart < limit; ) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && range.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int length = lineEnd - lineStart;
+            if (length > 0 && range.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            if (length > 0) {
+                records.add(parser.parse(range, lineStart, length, start));
+            }
+            lineStart = lineEnd + 1;
+        }
+        return records;
+    }
+
+    /**
+     * Splits one line into values, reusing its buffers across the lines of a range.
+     */
+    private static class LineParser {
+
+        private byte[] line = new byte[256];
+        private byte[] value = new byte[256];
+        private final List<String> values = new ArrayList<>();
+
+        String[] parse(MappedByteBuffer range, int offset, int length, long rangeStart) throws IOException {
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+                value = new byte[line.length];
+            }
+            range.get(offset, line, 0, length);
+            values.clear();
+
+            int i = 0;
+            while (true) {
+                if (i < length && line[i] == '"') {
+                    int size = 0;
+                    int j = i + 1;
+                    while (true) {
+                        if (j >= length) {
+                            throw malformed("unterminated quoted value; values spanning lines are not supported",
+                                    rangeStart + offset);
+                        }
+                        if (line[j] == '"') {
+                            if (j + 1 < length && line[j + 1] == '"') {
+                                value[size++] = '"';
+                                j += 2;
+                                continue;
+                            }
+                            j++;
+                            break;
+                        }
+                        value[size++] = line[j++];
+                    }
+                    if (j < length && line[j] != ',') {
+                        throw malformed("invalid character after quoted value", rangeStart + offset);
+                    }
+                    values.add(new String(value, 0, size, StandardCharsets.UTF_8));
+                    i = j;
+                } else {
+                    int j = i;
+                    while (j < length && line[j] != ',') {
+                        j++;
+                    }
+                    values.add(new String(line, i, j - i, StandardCharsets.UTF_8));
+                    i = j;
+                }
+
+                if (i >= length) {
+                    break;
+                }
+                i++;
+                if (i == length) {
+                    values.add("");
+                    break;
+                }
+            }
+            return values.toArray(new String[0]);
+        }
+
+        private static IOException malformed(String problem, long lineOffset) {
+            return new IOException("Malformed CSV line at byte " + lineOffset + ": " + problem);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.productservice.util;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registry of the fields an entity may be sorted by.
+ * Every field is backed by an index from the Flyway migrations; non-unique fields are backed by a
+ * composite (field, id) index, so id is appended as tie-breaker and each page is an index range scan.
+ */
+public final class SortFields {
+
+    public static final SortFields PRODUCTS = new SortFields(
+            List.of("id", "productCode"),
+            List.of("productName", "categoryCode", "creationDate"));
+
+    public static final SortFields CATEGORIES = new SortFields(
+            List.of("id", "categoryCode"),
+            List.of("categoryName", "creationDate"));
+
+    private static final String TIE_BREAKER = "id";
+
+    private final Set<String> uniqueFields;
+    private final Set<String> fields = new LinkedHashSet<>();
+
+    private SortFields(List<String> uniqueFields, List<String> nonUniqueFields) {
+        this.uniqueFields = Set.copyOf(uniqueFields);
+        this.fields.addAll(uniqueFields);
+        this.fields.addAll(nonUniqueFields);
+    }
+
+    public boolean isSupported(String field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Builds the sort for a supported field, with id as tie-breaker in the same direction.
+     *
+     * @throws IllegalArgumentException if the field is not supported
+     */
+    public Sort sort(String field, Sort.Direction direction) {
+        if (!isSupported(field)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + field + ", supported: " + fields);
+        }
+
+        Sort sort = Sort.by(direction, field);
+        return uniqueFields.contains(field) ? sort : sort.and(Sort.by(direction, TIE_BREAKER));
+    }
+}
@@ -0,0 +1,17 @@
+-- Catalog tables as previously created by Hibernate; IF NOT EXISTS keeps this a no-op on existing databases
+CREATE TABLE IF NOT EXISTS categories (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    category_name VARCHAR(255) NOT NULL,
+    category_code VARCHAR(255) NOT NULL,
+    creation_date TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_categories_category_code UNIQUE (category_code)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_name  VARCHAR(255) NOT NULL,
+    product_code  VARCHAR(255) NOT NULL,
+    category_code VARCHAR(255) NOT NULL,
+    creation_date TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_products_product_code UNIQUE (product_code)
+);
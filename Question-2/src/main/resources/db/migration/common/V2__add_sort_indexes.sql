@@ -0,0 +1,8 @@
+-- One index per sort field in SortFields; id is appended so equal values page in a stable order.
+-- id, product_code and category_code (on categories) are already covered by their primary key / unique indexes.
+CREATE INDEX IF NOT EXISTS idx_products_product_name_id ON products (product_name, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_code_id ON products (category_code, id);
+CREATE INDEX IF NOT EXISTS idx_products_creation_date_id ON products (creation_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_categories_category_name_id ON categories (category_name, id);
+CREATE INDEX IF NOT EXISTS idx_categories_creation_date_id ON categories (creation_date, id);
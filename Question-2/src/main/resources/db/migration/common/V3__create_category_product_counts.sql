@@ -0,0 +1,9 @@
+-- Product count per category code, maintained by the application on every product insert
+CREATE TABLE IF NOT EXISTS category_product_counts (
+    category_code VARCHAR(255) NOT NULL PRIMARY KEY,
+    product_count BIGINT       NOT NULL
+);
+
+-- One-time backfill from the existing products
+INSERT INTO category_product_counts (category_code, product_count)
+SELECT category_code, COUNT(*) FROM products GROUP BY category_code;
@@ -0,0 +1,16 @@
+-- Content hashes of imported CSV files, used by the incremental import to skip unchanged files and chunks
+CREATE TABLE IF NOT EXISTS import_file_fingerprints (
+    file_key    VARCHAR(255) NOT NULL PRIMARY KEY,
+    file_hash   VARCHAR(64)  NOT NULL,
+    chunk_rows  INT          NOT NULL,
+    row_count   BIGINT       NOT NULL,
+    imported_at TIMESTAMP(6) NOT NULL
+);
+
+-- One hash per fixed-size chunk of rows, in file order
+CREATE TABLE IF NOT EXISTS import_chunk_fingerprints (
+    file_key    VARCHAR(255) NOT NULL,
+    chunk_index INT          NOT NULL,
+    chunk_hash  VARCHAR(64)  NOT NULL,
+    PRIMARY KEY (file_key, chunk_index)
+);
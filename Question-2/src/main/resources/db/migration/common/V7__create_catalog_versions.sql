@@ -0,0 +1,10 @@
+-- Per-table change counters behind the ETag / Last-Modified validators, shared by every instance.
+-- Bumped in the transaction that changes the table.
+CREATE TABLE IF NOT EXISTS catalog_versions (
+    table_name    VARCHAR(32)  NOT NULL PRIMARY KEY,
+    version       BIGINT       NOT NULL,
+    last_modified TIMESTAMP(3) NOT NULL
+);
+
+INSERT INTO catalog_versions (table_name, version, last_modified) VALUES ('PRODUCTS', 0, CURRENT_TIMESTAMP);
+INSERT INTO catalog_versions (table_name, version, last_modified) VALUES ('CATEGORIES', 0, CURRENT_TIMESTAMP);
@@ -0,0 +1,3 @@
+-- Fingerprints are keyed by the file's absolute path instead of its bare name
+ALTER TABLE import_file_fingerprints ALTER COLUMN file_key SET DATA TYPE VARCHAR(1024);
+ALTER TABLE import_chunk_fingerprints ALTER COLUMN file_key SET DATA TYPE VARCHAR(1024);
@@ -0,0 +1,9 @@
+-- H2 has no tsvector: lower-cased generated name columns with plain indexes back the LIKE-based fallback search
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS search_name VARCHAR(255) GENERATED ALWAYS AS (LOWER(product_name));
+
+ALTER TABLE categories
+    ADD COLUMN IF NOT EXISTS search_name VARCHAR(255) GENERATED ALWAYS AS (LOWER(category_name));
+
+CREATE INDEX IF NOT EXISTS idx_products_search_name ON products (search_name);
+CREATE INDEX IF NOT EXISTS idx_categories_search_name ON categories (search_name);
@@ -0,0 +1,15 @@
+-- Name search matches every term at the start of any word, like the PostgreSQL tsvector search. The generated
+-- columns become the lower-cased name with each run of other characters as one space, behind a leading space,
+-- so "LIKE '% term%'" finds a word start. No index serves that pattern, so the prefix indexes go.
+DROP INDEX IF EXISTS idx_products_search_name;
+DROP INDEX IF EXISTS idx_categories_search_name;
+
+ALTER TABLE products DROP COLUMN search_name;
+ALTER TABLE products
+    ADD COLUMN search_name VARCHAR(256)
+        GENERATED ALWAYS AS (' ' || REGEXP_REPLACE(LOWER(product_name), '[^\p{L}\p{N}]+', ' '));
+
+ALTER TABLE categories DROP COLUMN search_name;
+ALTER TABLE categories
+    ADD COLUMN search_name VARCHAR(256)
+        GENERATED ALWAYS AS (' ' || REGEXP_REPLACE(LOWER(category_name), '[^\p{L}\p{N}]+', ' '));
@@ -0,0 +1,44 @@
+-- Optional, PostgreSQL only: rebuilds products as a hash-partitioned table on product_code.
+-- Enabled by adding classpath:db/migration/partitioned to spring.flyway.locations; the partition count comes from
+-- the products_partitions placeholder and is fixed once this has run.
+-- Keys of a partitioned table must contain the partition key, so the primary key becomes (id, product_code).
+-- product_code stays unique across all partitions, and ids keep coming from a single sequence.
+
+CREATE TABLE products_partitioned (
+    id            BIGINT       NOT NULL,
+    product_name  VARCHAR(255) NOT NULL,
+    product_code  VARCHAR(255) NOT NULL,
+    category_code VARCHAR(255) NOT NULL,
+    creation_date TIMESTAMP(6) NOT NULL,
+    search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple', coalesce(product_name, ''))) STORED
+) PARTITION BY HASH (product_code);
+
+DO $$
+BEGIN
+    FOR i IN 0 .. ${products_partitions} - 1 LOOP
+        EXECUTE format('CREATE TABLE products_p%s PARTITION OF products_partitioned FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       i, ${products_partitions}, i);
+    END LOOP;
+END
+$$;
+
+-- Copy before any index exists, then build the indexes once per partition
+INSERT INTO products_partitioned (id, product_name, product_code, category_code, creation_date)
+SELECT id, product_name, product_code, category_code, creation_date FROM products;
+
+CREATE SEQUENCE products_partitioned_id_seq OWNED BY products_partitioned.id;
+SELECT setval('products_partitioned_id_seq', coalesce(max(id), 0) + 1, false) FROM products_partitioned;
+ALTER TABLE products_partitioned ALTER COLUMN id SET DEFAULT nextval('products_partitioned_id_seq');
+
+DROP TABLE products;
+ALTER TABLE products_partitioned RENAME TO products;
+ALTER SEQUENCE products_partitioned_id_seq RENAME TO products_id_seq;
+
+ALTER TABLE products ADD CONSTRAINT products_pkey PRIMARY KEY (id, product_code);
+ALTER TABLE products ADD CONSTRAINT uk_products_product_code UNIQUE (product_code);
+
+-- Same secondary indexes as V2 and V4; created on the parent, they cascade to every partition
+CREATE INDEX idx_products_product_name_id ON products (product_name, id);
+CREATE INDEX idx_products_category_code_id ON products (category_code, id);
+CREATE INDEX idx_products_creation_date_id ON products (creation_date, id);
+CREATE INDEX idx_products_search_vector ON products USING GIN (search_vector);
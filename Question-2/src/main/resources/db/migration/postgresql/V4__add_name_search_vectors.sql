@@ -0,0 +1,11 @@
+-- Full-text search on names: generated tsvector columns stay current on every insert/update, GIN indexes serve @@ queries
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', coalesce(product_name, ''))) STORED;
+
+ALTER TABLE categories
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', coalesce(category_name, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector ON products USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_categories_search_vector ON categories USING GIN (search_vector);
@@ -0,0 +1,194 @@
+package com.example.productservice.config;
+
+import com.example.productservice.entity.Category;
+import com.example.productservice.repository.CategoryRepository;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application against two separate in-memory H2 databases; a row that only exists in the
+ * replica shows which database a read went to. The replica never receives the primary's writes, so it
+ * stands in for one that lags behind.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "catalog.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "catalog.datasource.replica.max-lag=1s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReadReplicaDataSourceConfigTest {
+
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        // A real replica receives the schema from the primary; here it is migrated separately.
+        // Not exposed as a Flyway bean, which would switch off the primary's auto-configured migration.
+        @Bean
+        MigrateResult replicaMigration(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            return Flyway.configure()
+                    .dataSource(replicaDataSource)
+                    .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                    .load()
+                    .migrate();
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReplicaLagWindow replicaLagWindow;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(dataSource).update("DELETE FROM categories WHERE category_code IN ('LAGGED01', 'OTHER01')");
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM categories WHERE category_code = 'REPLICA01'");
+        replica.update("INSERT INTO categories (category_code, category_name, creation_date) VALUES (?, ?, ?)",
+                "REPLICA01", "Replica Only", LocalDateTime.now());
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String count = "SELECT COUNT(*) FROM categories WHERE category_code = 'REPLICA01'";
+
+        Integer onReplica = readOnly.execute(status -> jdbcTemplate.queryForObject(count, Integer.class));
+        Integer onPrimary = readWrite.execute(status -> jdbcTemplate.queryForObject(count, Integer.class));
+
+        assertThat(onReplica).isEqualTo(1);
+        assertThat(onPrimary).isZero();
+        assertThat(jdbcTemplate.queryForObject(count, Integer.class)).isZero();
+    }
+
+    @Test
+    void testRepositoryReadsUseReplicaAndWritesUsePrimary() {
+        Category category = new Category();
+        category.setCategoryCode("PRIMARY01");
+        category.setCategoryName("Primary Only");
+        category.setCreationDate(LocalDateTime.now());
+        categoryRepository.insertIfAbsent(category);
+
+        assertThat(categoryRepository.findAll(PageRequest.of(0, 100)).getContent())
+                .extracting(Category::getCategoryCode)
+                .contains("REPLICA01")
+                .doesNotContain("PRIMARY01");
+        assertThat(categoryRepository.findAllFields(List.of("categoryCode"), null, PageRequest.of(0, 100))
+                .getContent())
+                .extracting(row -> row.get("categoryCode"))
+                .contains("REPLICA01")
+                .doesNotContain("PRIMARY01");
+        assertThat(new JdbcTemplate(dataSource)
+                .queryForObject("SELECT COUNT(*) FROM categories WHERE category_code = 'PRIMARY01'", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testWritingClientReadsFromPrimaryWithinLagWindow() throws Exception {
+        MvcResult write = mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryCode\":\"LAGGED01\",\"categoryName\":\"Not Replicated Yet\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReplicaLagWindow.COOKIE))
+                .andReturn();
+        Cookie written = write.getResponse().getCookie(ReplicaLagWindow.COOKIE);
+
+        // The same client's next request carries the cookie and reads its write from the primary
+        assertThat(countInRequest(written, "LAGGED01")).isEqualTo(1);
+        assertThat(countInRequest(written, "REPLICA01")).isZero();
+
+        for (int i = 0; i < 100 && replicaLagWindow.isRecent(Long.parseLong(written.getValue())); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(countInRequest(written, "LAGGED01")).isZero();
+        assertThat(countInRequest(written, "REPLICA01")).isEqualTo(1);
+    }
+
+    @Test
+    void testReplicaReadsContinueWhileAnotherClientWrites() throws Exception {
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryCode\":\"OTHER01\",\"categoryName\":\"Written By Another Client\"}"))
+                .andExpect(status().isOk());
+
+        // Neither a client without the cookie nor work outside a request waits for the other client's write
+        assertThat(countInRequest(null, "REPLICA01")).isEqualTo(1);
+        assertThat(countInRequest(null, "OTHER01")).isZero();
+        assertThat(countInReadOnlyTransaction("REPLICA01")).isEqualTo(1);
+
+        // Until the replica has had time to catch up, its pages are not stored under the new version
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private Integer countInRequest(Cookie cookie, String categoryCode) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+        try {
+            return countInReadOnlyTransaction(categoryCode);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private Integer countInReadOnlyTransaction(String categoryCode) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM categories WHERE category_code = ?", Integer.class, categoryCode));
+    }
+}
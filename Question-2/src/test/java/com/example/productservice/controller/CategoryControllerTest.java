@@ -1,8 +1,11 @@
 package com.example.productservice.controller;
 
 import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
 import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +17,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +33,9 @@ class CategoryControllerTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -151,5 +158,147 @@ class CategoryControllerTest {
                         .content(objectMapper.writeValueAsString(duplicate)))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void testGetCategoriesNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/categories")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testExportCategoriesAsCsv() throws Exception {
+        Category category = new Category();
+        category.setCategoryCode("EXP001");
+        category.setCategoryName("Export Category");
+        category.setCreationDate(LocalDateTime.now());
+        categoryRepository.save(category);
+
+        mockMvc.perform(get("/api/categories/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("CATEGORY_CODE,CATEGORY_NAME\r\nEXP001,Export Category\r\n"));
+    }
+
+    @Test
+    void testCreateCategoriesBatch() throws Exception {
+        String batch = """
+                [
+                  {"categoryCode": "BATCH001", "categoryName": "Batch Category 1"},
+                  {"categoryCode": "BATCH001", "categoryName": "Batch Category 1 again"},
+                  {"categoryCode": "BATCH002", "categoryName": "Batch Category 2"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/categories/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].status", is("DUPLICATE")))
+                .andExpect(jsonPath("$[2].status", is("CREATED")))
+                .andExpect(jsonPath("$[2].id", notNullValue()));
+    }
+
+    @Test
+    void testGetCategoryProducts() throws Exception {
+        productRepository.deleteAll();
+
+        Category category = new Category();
+        category.setCategoryCode("NAV001");
+        category.setCategoryName("Navigation");
+        categoryRepository.save(category);
+
+        for (String code : new String[]{"NAV-P2", "NAV-P1", "OTHER-P1"}) {
+            Product product = new Product();
+            product.setProductCode(code);
+            product.setProductName("Product " + code);
+            product.setCategoryCode(code.startsWith("NAV") ? "NAV001" : "OTHER");
+            productRepository.save(product);
+        }
+
+        mockMvc.perform(get("/api/categories/NAV001/products")
+                        .param("sortBy", "productCode"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].productCode", is("NAV-P1")))
+                .andExpect(jsonPath("$.content[1].productCode", is("NAV-P2")));
+
+        mockMvc.perform(get("/api/categories/MISSING/products"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetCategoryStats() throws Exception {
+        productRepository.deleteAll();
+
+        Category category = new Category();
+        category.setCategoryCode("STAT001");
+        category.setCategoryName("Statistics");
+        categoryRepository.save(category);
+
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productCode\":\"STAT-P1\",\"productName\":\"P1\",\"categoryCode\":\"STAT001\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productCode\":\"STAT-P2\",\"productName\":\"P2\",\"categoryCode\":\"STAT002\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productCode\":\"STAT-P3\",\"productName\":\"P3\",\"categoryCode\":\"STAT001\"},"
+                                + "{\"productCode\":\"STAT-P4\",\"productName\":\"P4\",\"categoryCode\":\"STAT001\"},"
+                                + "{\"productCode\":\"STAT-P1\",\"productName\":\"Duplicate\",\"categoryCode\":\"STAT001\"}]"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/categories/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].categoryCode", is("STAT001")))
+                .andExpect(jsonPath("$[0].categoryName", is("Statistics")))
+                .andExpect(jsonPath("$[0].productCount", is(3)))
+                .andExpect(jsonPath("$[1].categoryCode", is("STAT002")))
+                .andExpect(jsonPath("$[1].productCount", is(1)));
+    }
+
+    @Test
+    void testSparseFieldset() throws Exception {
+        Category category = new Category();
+        category.setCategoryCode("FLD001");
+        category.setCategoryName("Fieldset");
+        categoryRepository.save(category);
+
+        mockMvc.perform(get("/api/categories").param("fields", "categoryName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.content[0].categoryName", is("Fieldset")))
+                .andExpect(jsonPath("$.content[0].categoryCode").doesNotExist());
+
+        mockMvc.perform(get("/api/categories").param("fields", ""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSmileResponse() throws Exception {
+        Category category = new Category();
+        category.setCategoryCode("SMILE001");
+        category.setCategoryName("Smile");
+        Category saved = categoryRepository.save(category);
+
+        byte[] body = mockMvc.perform(get("/api/categories/" + saved.getId()).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Category decoded = new SmileMapper().findAndRegisterModules().readValue(body, Category.class);
+        assertThat(decoded.getCategoryCode()).isEqualTo("SMILE001");
+        assertThat(decoded.getCreationDate()).isNotNull();
+    }
+}
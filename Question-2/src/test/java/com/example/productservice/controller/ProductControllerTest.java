@@ -1,19 +1,35 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.config.ReplicaLagWindow;
+import com.example.productservice.entity.Category;
 import com.example.productservice.entity.Product;
+import com.example.productservice.event.CatalogChangedEvent;
+import com.example.productservice.repository.CategoryRepository;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.service.CatalogVersionService;
+import com.example.productservice.service.ChangeFeedService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,9 +45,18 @@ class ProductControllerTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ObjectProvider<ReplicaLagWindow> replicaLagWindow;
+
     @BeforeEach
     void setUp() {
         productRepository.deleteAll();
@@ -125,6 +150,238 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.content[1].productCode", is("AAAA")));
     }
 
+    @Test
+    void testSortByNonUniqueFieldUsesIdTieBreaker() throws Exception {
+        for (String code : new String[]{"SORT003", "SORT001", "SORT002"}) {
+            Product product = new Product();
+            product.setProductCode(code);
+            product.setProductName("Same Name");
+            product.setCategoryCode("CAT001");
+            productRepository.save(product);
+        }
+
+        mockMvc.perform(get("/api/products")
+                        .param("sortBy", "productName")
+                        .param("sortDirection", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productCode", is("SORT002")))
+                .andExpect(jsonPath("$.content[2].productCode", is("SORT003")));
+    }
+
+    @Test
+    void testUnknownSortFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/products").param("sortBy", "unknownField"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products").param("sortBy", "product_name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExpandCategory() throws Exception {
+        Category category = categoryRepository.findByCategoryCode("EXP001").orElseGet(() -> {
+            Category newCategory = new Category();
+            newCategory.setCategoryCode("EXP001");
+            newCategory.setCategoryName("Expanded Category");
+            return categoryRepository.save(newCategory);
+        });
+
+        Product product = new Product();
+        product.setProductCode("EXP-P1");
+        product.setProductName("Expanded Product");
+        product.setCategoryCode(category.getCategoryCode());
+        productRepository.save(product);
+
+        Product orphan = new Product();
+        orphan.setProductCode("EXP-P2");
+        orphan.setProductName("Orphan Product");
+        orphan.setCategoryCode("NO-SUCH-CATEGORY");
+        productRepository.save(orphan);
+
+        mockMvc.perform(get("/api/products")
+                        .param("expand", "category")
+                        .param("sortBy", "productCode"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productCode", is("EXP-P1")))
+                .andExpect(jsonPath("$.content[0].category.categoryName", is("Expanded Category")))
+                .andExpect(jsonPath("$.content[1].productCode", is("EXP-P2")))
+                .andExpect(jsonPath("$.content[1].category").value(nullValue()));
+
+        mockMvc.perform(get("/api/products").param("expand", "supplier"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchByName() throws Exception {
+        categoryRepository.findByCategoryCode("SRCH01").orElseGet(() -> {
+            Category category = new Category();
+            category.setCategoryCode("SRCH01");
+            category.setCategoryName("Pain Care");
+            return categoryRepository.save(category);
+        });
+
+        String[][] products = {
+                {"SRCH-P1", "Ibuprofen Tablet", "SRCH01"},
+                {"SRCH-P2", "Pain Relief Gel", "SRCH02"},
+                {"SRCH-P3", "Spain Souvenir", "SRCH02"}
+        };
+        for (String[] values : products) {
+            Product product = new Product();
+            product.setProductCode(values[0]);
+            product.setProductName(values[1]);
+            product.setCategoryCode(values[2]);
+            productRepository.insertIfAbsent(product);
+        }
+
+        // Product-name matches rank above category-name matches; "Spain" is not a word-prefix match
+        mockMvc.perform(get("/api/products/search").param("q", "PAIN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].productCode", is("SRCH-P2")))
+                .andExpect(jsonPath("$.content[1].productCode", is("SRCH-P1")))
+                .andExpect(jsonPath("$.content[1].rank", lessThan(1.0)));
+
+        mockMvc.perform(get("/api/products/search").param("q", "pain re"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].productName", is("Pain Relief Gel")));
+
+        mockMvc.perform(get("/api/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testChangeFeed() throws Exception {
+        long lastId = 0;
+        for (int i = 1; i <= 5; i++) {
+            Product product = new Product();
+            product.setProductCode(String.format("FEED%03d", i));
+            product.setProductName("Feed Product " + i);
+            product.setCategoryCode("CAT001");
+            product.setCreationDate(LocalDateTime.now());
+            lastId = productRepository.save(product).getId();
+        }
+
+        String first = mockMvc.perform(get("/api/products/changes").param("since", "0").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].productCode", is("FEED001")))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andReturn().getResponse().getContentAsString();
+        long cursor = objectMapper.readTree(first).get("nextCursor").asLong();
+
+        mockMvc.perform(get("/api/products/changes").param("since", Long.toString(cursor)).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].productCode", contains("FEED004", "FEED005")))
+                .andExpect(jsonPath("$.nextCursor", is((int) lastId)))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+
+        mockMvc.perform(get("/api/products/changes").param("since", Long.toString(lastId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor", is((int) lastId)));
+
+        mockMvc.perform(get("/api/products/changes").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testChangeFeedIsNotCachedWhileRowsAreHeldBack() throws Exception {
+        // The test profile settles at once; a feed that holds rows back for half a second, with its validators
+        ChangeFeedService settlingFeed = new ChangeFeedService(productRepository, categoryRepository, Duration.ofMillis(500));
+        ConditionalRequestSupport feedValidators =
+                new ConditionalRequestSupport(catalogVersionService, new ContentNegotiationManager(), settlingFeed,
+                        replicaLagWindow);
+
+        Product product = new Product();
+        product.setProductCode("SETTLE001");
+        product.setProductName("Settling Product");
+        product.setCategoryCode("CAT001");
+        product.setCreationDate(LocalDateTime.now());
+        productRepository.save(product);
+        catalogVersionService.onCatalogChanged(CatalogChangedEvent.products());
+
+        // Held back: no validator a client could send back to get a 304 for the same version later
+        MockHttpServletResponse heldBack = new MockHttpServletResponse();
+        assertThat(feedValidators.isFeedNotModified(feedRequest(null, heldBack), CatalogChangedEvent.Table.PRODUCTS)).isFalse();
+        assertThat(heldBack.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(settlingFeed.productChanges(0, 10).items()).isEmpty();
+
+        Thread.sleep(600);
+
+        MockHttpServletResponse settled = new MockHttpServletResponse();
+        assertThat(feedValidators.isFeedNotModified(feedRequest(null, settled), CatalogChangedEvent.Table.PRODUCTS)).isFalse();
+        assertThat(settlingFeed.productChanges(0, 10).items())
+                .extracting(Product::getProductCode).containsExactly("SETTLE001");
+        String etag = settled.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        assertThat(feedValidators.isFeedNotModified(feedRequest(etag, new MockHttpServletResponse()),
+                CatalogChangedEvent.Table.PRODUCTS)).isTrue();
+    }
+
+    private static ServletWebRequest feedRequest(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/changes");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    @Test
+    void testSparseFieldset() throws Exception {
+        for (String code : new String[]{"FLD_2", "FLD_1", "FLDX1"}) {
+            Product product = new Product();
+            product.setProductCode(code);
+            product.setProductName("Name " + code);
+            product.setCategoryCode("CAT001");
+            productRepository.save(product);
+        }
+
+        // "_" is matched literally, as in the regular product code search
+        mockMvc.perform(get("/api/products")
+                        .param("fields", "productCode,productName")
+                        .param("productCode", "FLD_")
+                        .param("sortBy", "productCode"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.page", is(0)))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.content[0].productCode", is("FLD_1")))
+                .andExpect(jsonPath("$.content[0].productName", is("Name FLD_1")))
+                .andExpect(jsonPath("$.content[0].id").doesNotExist())
+                .andExpect(jsonPath("$.content[0].categoryCode").doesNotExist());
+
+        mockMvc.perform(get("/api/products").param("fields", "productCode,price"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products").param("fields", "productCode").param("expand", "category"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCborResponse() throws Exception {
+        Product product = new Product();
+        product.setProductCode("CBOR001");
+        product.setProductName("Binary Product");
+        product.setCategoryCode("CAT001");
+        productRepository.save(product);
+
+        byte[] body = mockMvc.perform(get("/api/products").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new CBORMapper().readTree(body);
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.get("content").get(0).get("productCode").asText()).isEqualTo("CBOR001");
+
+        // JSON stays the default
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void testSearchByProductCode() throws Exception {
         Product product1 = new Product();
@@ -203,5 +460,151 @@ class ProductControllerTest {
                         .content(objectMapper.writeValueAsString(duplicate)))
                 .andExpect(status().isBadRequest());
     }
-}
 
+    @Test
+    void testGetProductsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testETagDependsOnRepresentation() throws Exception {
+        String jsonEtag = mockMvc.perform(get("/api/products").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        String cborEtag = mockMvc.perform(get("/api/products").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(cborEtag).isNotEqualTo(jsonEtag);
+
+        mockMvc.perform(get("/api/products")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", jsonEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testCreateProductChangesETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/products"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Product product = new Product();
+        product.setProductCode("ETAG001");
+        product.setProductName("ETag Product");
+        product.setCategoryCode("CAT001");
+
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+    @Test
+    void testExportProductsAsCsv() throws Exception {
+        Product product = new Product();
+        product.setProductCode("EXP001");
+        product.setProductName("Export Product");
+        product.setCategoryCode("CAT001");
+        product.setCreationDate(LocalDateTime.now());
+        productRepository.save(product);
+
+        mockMvc.perform(get("/api/products/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith(
+                        "PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME\r\n")))
+                .andExpect(content().string(containsString("EXP001,Export Product,CAT001,CAT001,")));
+    }
+
+    @Test
+    void testExportProductsAsNdjson() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            Product product = new Product();
+            product.setProductCode(String.format("EXP%03d", i));
+            product.setProductName("Export Product " + i);
+            product.setCategoryCode("CAT001");
+            product.setCreationDate(LocalDateTime.now());
+            productRepository.save(product);
+        }
+
+        String body = mockMvc.perform(get("/api/products/export")
+                        .param("format", "NDJSON"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readValue(lines[0], Product.class).getProductCode())
+                .isEqualTo("EXP001");
+    }
+
+    @Test
+    void testExportProductsWithUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/products/export")
+                        .param("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCreateProductsBatch() throws Exception {
+        Product existing = new Product();
+        existing.setProductCode("BATCH000");
+        existing.setProductName("Existing Product");
+        existing.setCategoryCode("CAT001");
+        existing.setCreationDate(LocalDateTime.now());
+        productRepository.save(existing);
+
+        String batch = """
+                [
+                  {"productCode": "BATCH001", "productName": "Batch Product 1", "categoryCode": "CAT001"},
+                  {"productCode": "BATCH002", "productName": "Batch Product 2", "categoryCode": "CAT001"},
+                  {"productCode": "BATCH001", "productName": "Batch Product 1 again", "categoryCode": "CAT001"},
+                  {"productCode": "BATCH000", "productName": "Existing Product", "categoryCode": "CAT001"},
+                  {"productCode": "BATCH003", "categoryCode": "CAT001"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].id", notNullValue()))
+                .andExpect(jsonPath("$[1].status", is("CREATED")))
+                .andExpect(jsonPath("$[2].status", is("DUPLICATE")))
+                .andExpect(jsonPath("$[3].status", is("DUPLICATE")))
+                .andExpect(jsonPath("$[4].status", is("ERROR")));
+
+        assertThat(productRepository.count()).isEqualTo(3);
+        assertThat(productRepository.existsByProductCode("BATCH002")).isTrue();
+    }
+
+    @Test
+    void testCreateProductsBatchRejectsEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.config.ReactiveCatalogServer;
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReactiveCatalogHandlerTest {
+
+    @Autowired
+    private ReactiveCatalogServer reactiveCatalogServer;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveCatalogServer.getPort())
+                .build();
+    }
+
+    @Test
+    void testGetProductsSortedAndFiltered() {
+        productRepository.save(new Product(null, "Banana", "FRU_001", "CAT001", LocalDateTime.now()));
+        productRepository.save(new Product(null, "Apple", "FRU%002", "CAT001", LocalDateTime.now()));
+        productRepository.save(new Product(null, "Carrot", "VEG001", "CAT002", LocalDateTime.now()));
+
+        webTestClient.get()
+                .uri("/reactive/api/products?sortBy=productName&sortDirection=DESC&size=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].productName").isEqualTo("Carrot")
+                .jsonPath("$[1].productName").isEqualTo("Banana");
+
+        // Wildcards in the filter match literally, as in /api/products
+        webTestClient.get()
+                .uri(uri -> uri.path("/reactive/api/products").queryParam("productCode", "{code}").build("%"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].productCode").isEqualTo("FRU%002");
+    }
+
+    @Test
+    void testGetProductsStreamsNdjsonByDefault() {
+        productRepository.save(new Product(null, "Product 1", "PROD001", "CAT001", LocalDateTime.now()));
+        productRepository.save(new Product(null, "Product 2", "PROD002", "CAT001", LocalDateTime.now()));
+
+        String body = webTestClient.get()
+                .uri("/reactive/api/products")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(body.lines())
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{").contains("\"productCode\":\"PROD00"));
+    }
+
+    @Test
+    void testGetByIdAndNotFound() {
+        Product product = productRepository.save(new Product(null, "Product 1", "PROD001", "CAT001", LocalDateTime.now()));
+        Category category = new Category();
+        category.setCategoryCode("CAT001");
+        category.setCategoryName("Category 1");
+        category.setCreationDate(LocalDateTime.now());
+        category = categoryRepository.save(category);
+
+        webTestClient.get().uri("/reactive/api/products/{id}", product.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.productCode").isEqualTo("PROD001");
+        webTestClient.get().uri("/reactive/api/categories/{id}", category.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.categoryName").isEqualTo("Category 1");
+        webTestClient.get().uri("/reactive/api/products/{id}", product.getId() + 1000)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testGetCategoriesPaged() {
+        for (int i = 1; i <= 15; i++) {
+            Category category = new Category();
+            category.setCategoryCode("CAT" + String.format("%03d", i));
+            category.setCategoryName("Category " + i);
+            category.setCreationDate(LocalDateTime.now());
+            categoryRepository.save(category);
+        }
+
+        webTestClient.get()
+                .uri("/reactive/api/categories?page=1&size=10&sortBy=categoryCode")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(5)
+                .jsonPath("$[0].categoryCode").isEqualTo("CAT011");
+    }
+
+    @Test
+    void testInvalidParametersAreRejected() {
+        webTestClient.get().uri("/reactive/api/products?sortBy=unknown").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/reactive/api/categories?sortBy=unknown").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/reactive/api/products?page=first").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/reactive/api/products/abc").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testServedOnlyByTheReactiveServer() throws Exception {
+        mockMvc.perform(get("/reactive/api/products"))
+                .andExpect(status().isNotFound());
+    }
+}
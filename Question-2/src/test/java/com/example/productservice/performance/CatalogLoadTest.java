@@ -0,0 +1,359 @@
+package com.example.productservice.performance;
+
+import com.example.productservice.event.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeded load test for the product REST API. Excluded from the default build; run it with
+ * {@code mvn test -Pperformance}. It seeds perf.products products (10^5 by default) into an in-memory H2 database
+ * in PostgreSQL mode, or into the schema perf.schema (default catalog_perf) of the database at perf.jdbc-url,
+ * and drives the list, search, get-by-id and create endpoints with perf.concurrency client threads,
+ * perf.requests measured requests per scenario. Seeding replaces the catalog tables' contents, so it refuses to
+ * run when they hold rows the test did not create.
+ * Throughput and p50/p99/p999 latencies are logged next to the numbers in performance/baseline.properties and
+ * written to target/performance/results.properties, which has the baseline layout so a run can be promoted
+ * to the new baseline. Both record the OS, CPU count and JVM; numbers from another environment are shown but
+ * not compared. With -Dperf.fail-on-regression=true a scenario that is slower than its baseline by more than
+ * perf.tolerance (default 1.5x) fails the run.
+ */
+@Tag("performance")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "catalog.import.file=none",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.example.productservice=WARN"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class CatalogLoadTest {
+
+    private static final String[] WORDS = {
+            "aspirin", "ibuprofen", "vitamin", "zinc", "omega", "calcium", "magnesium", "probiotic", "melatonin",
+            "lotion", "cream", "spray", "drops", "syrup", "tablet", "capsule", "gel", "balm", "powder", "patch",
+            "baby", "junior", "forte", "plus", "extra", "night", "day", "sensitive", "herbal", "classic"
+    };
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final long products = Long.getLong("perf.products", 100_000);
+    private final long categories = Long.getLong("perf.categories", Math.max(10, products / 100));
+    private final int concurrency = Integer.getInteger("perf.concurrency", 8);
+    private final int requests = Integer.getInteger("perf.requests", 2_000);
+    private final int warmup = Integer.getInteger("perf.warmup", 200);
+    // H2 ranks every row whose name starts with the word, without PostgreSQL's GIN index; a tenth of the requests by default
+    private final int searchRequests = Integer.getInteger("perf.requests.search", requests / 10);
+    private final long seed = Long.getLong("perf.seed", 42);
+    private final double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "1.5"));
+    private final boolean failOnRegression = Boolean.getBoolean("perf.fail-on-regression");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private long minProductId;
+    private long maxProductId;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("perf.jdbc-url");
+        if (url == null) {
+            registry.add("spring.datasource.url",
+                    () -> "jdbc:h2:mem:perf;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1");
+            return;
+        }
+        // e.g. the docker-compose database: -Dperf.jdbc-url=jdbc:postgresql://localhost:5432/test
+        // Migrated into a schema of its own, so the seed never touches the application's tables
+        String schema = System.getProperty("perf.schema", "catalog_perf");
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.flyway.schemas", () -> schema);
+        registry.add("spring.datasource.hikari.schema", () -> schema);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> System.getProperty("perf.jdbc-username", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("perf.jdbc-password", "1234"));
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @BeforeAll
+    void seedCatalog() {
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE product_code LIKE 'P%'", Long.class);
+        if (existing == null || existing != products) {
+            long start = System.nanoTime();
+            seed();
+            log.warn("Seeded {} products and {} categories in {} ms", products, categories,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        // New rows bypassed the application, so drop cached lookups and versions
+        eventPublisher.publishEvent(CatalogChangedEvent.categories());
+        eventPublisher.publishEvent(CatalogChangedEvent.products());
+
+        minProductId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM products", Long.class);
+        maxProductId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+    }
+
+    @Test
+    void testCatalogEndpointsAgainstBaseline() throws Exception {
+        Properties baseline = loadBaseline();
+        Map<String, String> environment = environment();
+        boolean comparable = environment.entrySet().stream()
+                .allMatch(entry -> entry.getValue().equals(baseline.getProperty(entry.getKey())));
+        if (!comparable) {
+            log.warn("Baseline was recorded on {}, this run is on {}: latencies are shown but not compared",
+                    baselineEnvironment(baseline, environment), environment);
+        }
+        Random random = new Random(seed);
+        long pages = Math.max(1, Math.min(products / 20, 500));
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("list", requests(requests, i -> get("/api/products?page=" + random.nextLong(pages)
+                + "&size=20&sortBy=productName")));
+        scenarios.put("search", requests(searchRequests, i -> get("/api/products/search?q="
+                + WORDS[random.nextInt(WORDS.length)] + "&size=20")));
+        scenarios.put("getById", requests(requests, i -> get("/api/products/"
+                + (minProductId + random.nextLong(maxProductId - minProductId + 1)))));
+        // Creates run last: each one evicts the product caches the read scenarios rely on
+        scenarios.put("create", requests(requests, i -> HttpRequest.newBuilder(uri("/api/products"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                        "{\"productCode\":\"L%s-%d\",\"productName\":\"load %s\",\"categoryCode\":\"C%06d\"}",
+                        runId, i, WORDS[i % WORDS.length], 1 + random.nextLong(categories))))
+                .build()));
+
+        Properties results = new Properties();
+        results.putAll(environment);
+        List<String> regressions = new ArrayList<>();
+        log.warn(String.format("%-8s %10s %9s %9s %9s %7s   baseline: %10s %9s", "scenario", "req/s",
+                "p50 ms", "p99 ms", "p999 ms", "errors", "req/s", "p99 ms"));
+
+        for (Map.Entry<String, Scenario> scenario : scenarios.entrySet()) {
+            String name = scenario.getKey();
+            ScenarioResult result = run(scenario.getValue());
+            result.store(name, results);
+
+            double baselineThroughput = Double.parseDouble(baseline.getProperty(name + ".throughput", "0"));
+            double baselineP99 = Double.parseDouble(baseline.getProperty(name + ".p99.ms", "0"));
+            log.warn(String.format("%-8s %10.0f %9.2f %9.2f %9.2f %7d   baseline: %10.0f %9.2f", name,
+                    result.throughput(), result.p50Millis(), result.p99Millis(), result.p999Millis(),
+                    result.errors(), baselineThroughput, baselineP99));
+
+            if (comparable && baselineP99 > 0 && result.p99Millis() > baselineP99 * tolerance) {
+                regressions.add(name + " p99 " + result.p99Millis() + " ms vs baseline " + baselineP99 + " ms");
+            }
+            if (comparable && baselineThroughput > 0 && result.throughput() * tolerance < baselineThroughput) {
+                regressions.add(name + " throughput " + result.throughput() + " req/s vs baseline " + baselineThroughput);
+            }
+            assertThat(result.errors()).as("failed %s requests", name).isZero();
+        }
+
+        writeResults(results);
+        if (!regressions.isEmpty()) {
+            log.warn("Slower than baseline x{}: {}", tolerance, regressions);
+        }
+        if (failOnRegression) {
+            assertThat(regressions).isEmpty();
+        }
+    }
+
+    private void seed() {
+        Long foreign = jdbcTemplate.queryForObject("SELECT"
+                + " (SELECT COUNT(*) FROM products WHERE product_code NOT LIKE 'P_________' AND product_code NOT LIKE 'L%-%')"
+                + " + (SELECT COUNT(*) FROM categories WHERE category_code NOT LIKE 'C______')", Long.class);
+        if (foreign != null && foreign > 0) {
+            throw new IllegalStateException("The catalog tables hold " + foreign + " rows the load test did not create;"
+                    + " refusing to delete them. Point perf.jdbc-url / perf.schema at a database or schema of its own.");
+        }
+
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM category_product_counts");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long i = 1; i <= categories; i++) {
+            rows.add(new Object[]{String.format("C%06d", i), "category " + WORDS[(int) (i % WORDS.length)] + " " + i, now});
+            if (rows.size() == SEED_BATCH_SIZE || i == categories) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO categories (category_code, category_name, creation_date) VALUES (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        // Names combine two vocabulary words so search terms match a realistic fraction of the rows
+        Random random = new Random(seed);
+        for (long i = 1; i <= products; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String categoryCode = String.format("C%06d", 1 + random.nextLong(categories));
+            rows.add(new Object[]{String.format("P%09d", i), name, categoryCode, now});
+            if (rows.size() == SEED_BATCH_SIZE || i == products) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (product_code, product_name, category_code, creation_date)"
+                        + " VALUES (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        jdbcTemplate.update("INSERT INTO category_product_counts (category_code, product_count)"
+                + " SELECT category_code, COUNT(*) FROM products GROUP BY category_code");
+    }
+
+    // Warm-up requests first, scaled with the measured count; built up front so the run is reproducible
+    private Scenario requests(int count, IntFunction<HttpRequest> request) {
+        int warmupCount = (int) ((long) warmup * count / requests);
+        List<HttpRequest> list = new ArrayList<>(warmupCount + count);
+        for (int i = 0; i < warmupCount + count; i++) {
+            list.add(request.apply(i));
+        }
+        return new Scenario(list.subList(0, warmupCount), list.subList(warmupCount, list.size()));
+    }
+
+    private ScenarioResult run(Scenario scenario) throws Exception {
+        drive(scenario.warmup(), new long[scenario.warmup().size()]);
+
+        int count = scenario.measured().size();
+        long[] latencies = new long[count];
+        long start = System.nanoTime();
+        int errors = drive(scenario.measured(), latencies);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new ScenarioResult(count * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999), errors);
+    }
+
+    private int drive(List<HttpRequest> batch, long[] latencies) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < concurrency; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < batch.size(); i = next.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(batch.get(i), HttpResponse.BodyHandlers.discarding());
+                        latencies[i] = System.nanoTime() - start;
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return errors.get();
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // Latencies are only comparable between runs on the same kind of machine and JVM
+    private static Map<String, String> environment() {
+        Map<String, String> environment = new LinkedHashMap<>();
+        environment.put("env.os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("env.cpus", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        environment.put("env.jvm", System.getProperty("java.vendor") + " " + System.getProperty("java.runtime.version"));
+        return environment;
+    }
+
+    private static Map<String, String> baselineEnvironment(Properties baseline, Map<String, String> environment) {
+        Map<String, String> recorded = new LinkedHashMap<>();
+        environment.keySet().forEach(key -> recorded.put(key, baseline.getProperty(key, "?")));
+        return recorded;
+    }
+
+    private Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/performance/baseline.properties")) {
+            if (in != null) {
+                baseline.load(in);
+            }
+        }
+        return baseline;
+    }
+
+    private void writeResults(Properties results) throws IOException {
+        Path file = Path.of("target", "performance", "results.properties");
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            results.store(writer, String.format("products=%d categories=%d concurrency=%d requests=%d",
+                    products, categories, concurrency, requests));
+        }
+        log.warn("Results written to {}", file.toAbsolutePath());
+    }
+
+    private record Scenario(List<HttpRequest> warmup, List<HttpRequest> measured) {
+    }
+
+    private record ScenarioResult(double throughput, double p50Millis, double p99Millis, double p999Millis, int errors) {
+
+        void store(String name, Properties properties) {
+            properties.setProperty(name + ".throughput", String.format("%.0f", throughput));
+            properties.setProperty(name + ".p50.ms", String.format("%.2f", p50Millis));
+            properties.setProperty(name + ".p99.ms", String.format("%.2f", p99Millis));
+            properties.setProperty(name + ".p999.ms", String.format("%.2f", p999Millis));
+        }
+    }
+}
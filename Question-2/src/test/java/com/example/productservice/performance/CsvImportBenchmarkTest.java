@@ -0,0 +1,205 @@
+package com.example.productservice.performance;
+
+import com.example.productservice.service.CsvImportService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Import throughput benchmark. Excluded from the default build; run it with
+ * {@code mvn test -Pperformance -Dtest=CsvImportBenchmarkTest}. It writes a synthetic CSV in the
+ * TestExampleFile.csv layout with perf.import.rows rows, of which perf.import.duplicate-ratio repeat an
+ * earlier product code and perf.import.existing-ratio of the distinct codes are already in the database,
+ * imports it into in-memory H2 and reports rows/sec, the heap high-water mark and the statements and JDBC
+ * batches per 1,000 rows. perf.import.parse-mode (STANDARD or PARALLEL) selects the parser.
+ * Results are also written to target/performance/import-results.properties.
+ */
+@Tag("performance")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "catalog.import.file=none",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.example.productservice=WARN"
+})
+@ActiveProfiles("test")
+@Slf4j
+class CsvImportBenchmarkTest {
+
+    private static final String HEADER = "PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME";
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private final int rows = Integer.getInteger("perf.import.rows", 100_000);
+    private final int categories = Integer.getInteger("perf.import.categories", Math.max(10, rows / 100));
+    private final double duplicateRatio = Double.parseDouble(System.getProperty("perf.import.duplicate-ratio", "0.1"));
+    private final double existingRatio = Double.parseDouble(System.getProperty("perf.import.existing-ratio", "0.2"));
+    private final long seed = Long.getLong("perf.seed", 42);
+    private final CsvImportService.ParseMode parseMode =
+            CsvImportService.ParseMode.valueOf(System.getProperty("perf.import.parse-mode", "STANDARD"));
+
+    @TestConfiguration
+    static class CountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? new StatementCountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testImportThroughputAndStatementCounts() throws IOException {
+        Path csvFile = tempDir.resolve("benchmark.csv");
+        Expected expected = writeCsvAndSeedExisting(csvFile);
+
+        StatementCountingDataSource counter = (StatementCountingDataSource) dataSource;
+        Statistics hibernate = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        counter.reset();
+        hibernate.clear();
+
+        long start = System.nanoTime();
+        CsvImportService.ImportResult result = csvImportService.importFromCsv(csvFile.toString(), parseMode);
+        long elapsed = System.nanoTime() - start;
+
+        long heapPeak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        double perThousand = 1000.0 / rows;
+        Properties results = new Properties();
+        results.setProperty("import.rows.per.second", String.format("%.0f", rows * 1e9 / elapsed));
+        results.setProperty("import.heap.peak.mb", String.format("%.1f", heapPeak / (1024.0 * 1024.0)));
+        for (String keyword : List.of("SELECT", "INSERT", "UPDATE", "MERGE")) {
+            results.setProperty("import." + keyword.toLowerCase() + ".per.1000.rows",
+                    String.format("%.1f", counter.executions(keyword) * perThousand));
+        }
+        results.setProperty("import.batches.per.1000.rows", String.format("%.1f", counter.batches() * perThousand));
+        results.setProperty("import.hibernate.statements.per.1000.rows",
+                String.format("%.1f", hibernate.getPrepareStatementCount() * perThousand));
+        results.setProperty("import.hibernate.entity.inserts.per.1000.rows",
+                String.format("%.1f", hibernate.getEntityInsertCount() * perThousand));
+
+        log.warn("Imported {} rows ({} distinct products, {} pre-existing) in {} ms: {}", rows,
+                expected.distinctProducts(), expected.existingProducts(), elapsed / 1_000_000, result);
+        results.stringPropertyNames().stream().sorted()
+                .forEach(key -> log.warn(String.format("%-48s %10s", key, results.getProperty(key))));
+        writeResults(results);
+
+        assertThat(result.errors).isZero();
+        assertThat(result.productsCreated).isEqualTo(expected.distinctProducts() - expected.existingProducts());
+        assertThat(result.productsSkipped).isEqualTo(rows - result.productsCreated);
+    }
+
+    /**
+     * Writes the CSV and inserts the pre-existing share of its distinct product and category codes.
+     */
+    private Expected writeCsvAndSeedExisting(Path csvFile) throws IOException {
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM category_product_counts");
+
+        Random random = new Random(seed);
+        int distinct = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (int i = 0; i < rows; i++) {
+                int product = distinct > 0 && random.nextDouble() < duplicateRatio ? random.nextInt(distinct) : distinct++;
+                int category = product % categories;
+                writer.write(String.format("%010d,Product %d,%d,%d,Category %d", product, product, category, category, category));
+                writer.newLine();
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> existingCategories = new ArrayList<>();
+        for (int category = 0; category < Math.min(categories, distinct); category++) {
+            if (random.nextDouble() < existingRatio) {
+                existingCategories.add(new Object[]{Integer.toString(category), "Category " + category, now});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (category_code, category_name, creation_date) VALUES (?, ?, ?)",
+                existingCategories);
+
+        int existing = 0;
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int product = 0; product < distinct; product++) {
+            if (random.nextDouble() < existingRatio) {
+                existing++;
+                batch.add(new Object[]{String.format("%010d", product), "Product " + product,
+                        Integer.toString(product % categories), now});
+            }
+            if (batch.size() == SEED_BATCH_SIZE || product == distinct - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO products (product_code, product_name, category_code, creation_date)"
+                        + " VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.update("INSERT INTO category_product_counts (category_code, product_count)"
+                + " SELECT category_code, COUNT(*) FROM products GROUP BY category_code");
+        return new Expected(distinct, existing);
+    }
+
+    private void writeResults(Properties results) throws IOException {
+        Path file = Path.of("target", "performance", "import-results.properties");
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            results.store(writer, String.format("rows=%d categories=%d duplicate-ratio=%s existing-ratio=%s parse-mode=%s",
+                    rows, categories, duplicateRatio, existingRatio, parseMode));
+        }
+    }
+
+    private record Expected(int distinctProducts, int existingProducts) {
+    }
+}
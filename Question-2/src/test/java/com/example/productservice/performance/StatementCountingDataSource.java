@@ -0,0 +1,112 @@
+package com.example.productservice.performance;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the statements sent through a data source, by leading SQL keyword, plus the JDBC batches executed.
+ * Hibernate statistics only see Hibernate's own statements, while the import inserts through JdbcTemplate,
+ * so the count is taken here at the JDBC level.
+ */
+class StatementCountingDataSource extends DelegatingDataSource {
+
+    private final Map<String, LongAdder> executions = new ConcurrentHashMap<>();
+    private final LongAdder batches = new LongAdder();
+
+    StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    /**
+     * Statements executed per keyword (SELECT, INSERT, ...); a batch counts once per row in it.
+     */
+    long executions(String keyword) {
+        LongAdder count = executions.get(keyword);
+        return count == null ? 0 : count.sum();
+    }
+
+    long batches() {
+        return batches.sum();
+    }
+
+    void reset() {
+        executions.clear();
+        batches.reset();
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) -> {
+            if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                return countingStatement(PreparedStatement.class, statement, sql);
+            }
+            if (result instanceof Statement statement && !(result instanceof PreparedStatement)) {
+                return countingStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S countingStatement(Class<S> type, S statement, String preparedSql) {
+        int[] pendingBatch = new int[1];
+        return proxy(type, statement, (method, args, result) -> {
+            switch (method.getName()) {
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" ->
+                        count(args != null && args[0] instanceof String sql ? sql : preparedSql, 1);
+                case "addBatch" -> pendingBatch[0]++;
+                case "executeBatch", "executeLargeBatch" -> {
+                    count(preparedSql, pendingBatch[0]);
+                    pendingBatch[0] = 0;
+                    batches.increment();
+                }
+                case "clearBatch" -> pendingBatch[0] = 0;
+                default -> {
+                }
+            }
+            return result;
+        });
+    }
+
+    private void count(String sql, int rows) {
+        String keyword = sql == null ? "OTHER" : sql.stripLeading().split("\\s", 2)[0].toUpperCase(Locale.ROOT);
+        executions.computeIfAbsent(keyword, k -> new LongAdder()).add(rows);
+    }
+
+    private interface AfterCall {
+        Object apply(Method method, Object[] args, Object result) throws SQLException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, AfterCall afterCall) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return afterCall.apply(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -78,5 +78,19 @@ class CategoryRepositoryTest {
             assertThat(e).isNotNull();
         }
     }
-}
 
+    @Test
+    void testInsertIfAbsent() {
+        Optional<Category> inserted = categoryRepository.insertIfAbsent(testCategory);
+
+        Category duplicate = new Category();
+        duplicate.setCategoryCode("CAT001");
+        duplicate.setCategoryName("Duplicate Category");
+        Optional<Category> skipped = categoryRepository.insertIfAbsent(duplicate);
+
+        assertThat(inserted).isPresent();
+        assertThat(inserted.get().getId()).isNotNull();
+        assertThat(skipped).isEmpty();
+        assertThat(categoryRepository.count()).isEqualTo(1);
+    }
+}
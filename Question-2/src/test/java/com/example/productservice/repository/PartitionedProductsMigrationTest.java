@@ -0,0 +1,123 @@
+package com.example.productservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the optional partitioned migration (db/migration/partitioned) on a real PostgreSQL database: migrates to V5,
+ * seeds products, then partitions them and checks the repositories' statements against the new table.
+ * Tagged postgres and only run with the postgres profile, against -Dpostgres.jdbc-url (default: the docker-compose
+ * database). The schema postgres.schema (default catalog_partitioned) is dropped and recreated.
+ * <pre>
+ * mvn test -Ppostgres -Dpostgres.jdbc-url=jdbc:postgresql://localhost:5432/test
+ * </pre>
+ */
+@Tag("postgres")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PartitionedProductsMigrationTest {
+
+    private static final int PARTITIONS = 16;
+    private static final int SEEDED = 500;
+
+    private final String schema = System.getProperty("postgres.schema", "catalog_partitioned");
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            System.getProperty("postgres.jdbc-url", "jdbc:postgresql://localhost:5432/test"),
+            System.getProperty("postgres.jdbc-username", "root"),
+            System.getProperty("postgres.jdbc-password", "1234"));
+
+    private JdbcTemplate jdbcTemplate;
+    private InsertIfAbsentJdbcSupport insertSupport;
+
+    @BeforeAll
+    void migrateSeedAndPartition() {
+        dataSource.setSchema(schema);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        insertSupport = new InsertIfAbsentJdbcSupport(jdbcTemplate);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+
+        // Up to the version before the partitioning, as an existing database would be
+        flyway("5").migrate();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= SEEDED; i++) {
+            rows.add(new Object[]{String.format("P%06d", i), "Seeded Product " + i, "C" + (i % 10), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (product_code, product_name, category_code, creation_date)"
+                + " VALUES (?, ?, ?, ?)", rows);
+
+        flyway(null).migrate();
+    }
+
+    @Test
+    void testProductsAreSplitIntoHashPartitionsWithTheirRows() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_inherits i"
+                + " JOIN pg_class parent ON parent.oid = i.inhparent"
+                + " JOIN pg_namespace n ON n.oid = parent.relnamespace"
+                + " WHERE parent.relname = 'products' AND n.nspname = ?", Integer.class, schema)).isEqualTo(PARTITIONS);
+        assertThat(jdbcTemplate.queryForMap("SELECT COUNT(*) AS seeded, MAX(id) AS max_id FROM products"
+                + " WHERE product_code LIKE 'P%'")).containsEntry("seeded", (long) SEEDED).containsEntry("max_id", (long) SEEDED);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products_p0", Integer.class)).isPositive();
+    }
+
+    @Test
+    void testInsertIfAbsentContinuesTheSequenceAndKeepsCodesUnique() {
+        String[] columns = {"product_code", "product_name", "category_code", "creation_date"};
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        assertThat(insertSupport.insertIfAbsent("products", columns, new Object[]{"NEW000001", "New Product", "C1", now}))
+                .hasValueSatisfying(id -> assertThat(id).isGreaterThan(SEEDED));
+        assertThat(insertSupport.insertIfAbsent("products", columns, new Object[]{"P000001", "Duplicate", "C1", now}))
+                .isEmpty();
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO products (product_code, product_name, category_code,"
+                + " creation_date) VALUES ('P000002', 'Duplicate', 'C1', ?)", now))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void testLookupsByCodeTouchOnePartitionAndLookupsByIdTouchAll() {
+        assertThat(scannedPartitions("SELECT * FROM products WHERE product_code = 'P000001'")).isEqualTo(1);
+        assertThat(scannedPartitions("SELECT * FROM products WHERE id = 1")).isEqualTo(PARTITIONS);
+    }
+
+    @Test
+    void testNameSearchUsesThePartitionedSearchVectors() {
+        ProductNameSearch search = new ProductNameSearch(jdbcTemplate, insertSupport);
+
+        assertThat(search.search(ProductNameSearch.terms("seeded prod"), PageRequest.of(0, 10)).getTotalElements())
+                .isEqualTo(SEEDED);
+    }
+
+    private Flyway flyway(String target) {
+        FluentConfiguration configuration = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql",
+                        "classpath:db/migration/partitioned")
+                .placeholders(Map.of("products_partitions", Integer.toString(PARTITIONS)));
+        return (target == null ? configuration : configuration.target(target)).load();
+    }
+
+    // Partitions the plan reads, not their indexes; pruned partitions do not appear in it
+    private int scannedPartitions(String sql) {
+        return (int) jdbcTemplate.queryForList("EXPLAIN " + sql, String.class).stream()
+                .filter(line -> line.matches(".* on products_p\\d+(\\s.*)?"))
+                .count();
+    }
+}
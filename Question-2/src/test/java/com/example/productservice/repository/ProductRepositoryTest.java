@@ -1,18 +1,26 @@
 package com.example.productservice.repository;
 
+import com.example.productservice.dto.ProductSearchHit;
 import com.example.productservice.entity.Product;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -21,6 +29,9 @@ class ProductRepositoryTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Product testProduct;
 
     @BeforeEach
@@ -99,5 +110,109 @@ class ProductRepositoryTest {
             assertThat(e).isNotNull();
         }
     }
-}
 
+    @Test
+    void testInsertIfAbsent() {
+        Optional<Product> inserted = productRepository.insertIfAbsent(testProduct);
+
+        Product duplicate = new Product();
+        duplicate.setProductCode("TEST001");
+        duplicate.setProductName("Duplicate Product");
+        duplicate.setCategoryCode("CAT002");
+        Optional<Product> skipped = productRepository.insertIfAbsent(duplicate);
+
+        assertThat(inserted).isPresent();
+        assertThat(inserted.get().getId()).isNotNull();
+        assertThat(skipped).isEmpty();
+        assertThat(productRepository.findByProductCode("TEST001").get().getProductName()).isEqualTo("Test Product");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testInsertIfAbsentRollsBackWithItsCount() {
+        // Called without a transaction, like the create endpoint; the count update is made to fail
+        jdbcTemplate.execute("ALTER TABLE category_product_counts ADD CONSTRAINT no_broken_counts"
+                + " CHECK (category_code <> 'BROKEN')");
+        testProduct.setCategoryCode("BROKEN");
+        try {
+            assertThatThrownBy(() -> productRepository.insertIfAbsent(testProduct))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE category_product_counts DROP CONSTRAINT no_broken_counts");
+        }
+
+        assertThat(productRepository.existsByProductCode("TEST001")).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE product_code = 'TEST001'",
+                Long.class)).isZero();
+    }
+
+    @Test
+    void testInsertAllIfAbsent() {
+        productRepository.save(testProduct);
+
+        Product existing = new Product();
+        existing.setProductCode("TEST001");
+        existing.setProductName("Existing Product");
+        existing.setCategoryCode("CAT001");
+
+        Product fresh = new Product();
+        fresh.setProductCode("TEST002");
+        fresh.setProductName("Fresh Product");
+        fresh.setCategoryCode("CAT001");
+
+        int inserted = productRepository.insertAllIfAbsent(List.of(existing, fresh));
+
+        assertThat(inserted).isEqualTo(1);
+        assertThat(existing.getId()).isNull();
+        assertThat(fresh.getId()).isNotNull();
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void testSearchCapsCandidatesAndTotal() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 1050; i++) {
+            Product product = new Product();
+            product.setProductCode(String.format("CAP%05d", i));
+            product.setProductName("Capped Product " + i);
+            product.setCategoryCode("CAT001");
+            products.add(product);
+        }
+        productRepository.insertAllIfAbsent(products);
+
+        Page<ProductSearchHit> firstPage = productRepository.searchByName("capped", PageRequest.of(0, 10));
+        Page<ProductSearchHit> lastPage = productRepository.searchByName("capped prod", PageRequest.of(99, 10));
+        Page<ProductSearchHit> pastCap = productRepository.searchByName("capped prod", PageRequest.of(100, 10));
+
+        assertThat(firstPage.getContent()).hasSize(10);
+        assertThat(firstPage.getTotalElements()).isEqualTo(ProductNameSearch.MAX_CANDIDATES);
+        assertThat(lastPage.getContent()).hasSize(10);
+        assertThat(lastPage.getTotalElements()).isEqualTo(ProductNameSearch.MAX_CANDIDATES);
+        assertThat(pastCap.getContent()).isEmpty();
+    }
+
+    @Test
+    void testSearchMatchesTermsAtAnyWordStart() {
+        String[][] names = {{"WORD1", "Pain-Relief Gel"}, {"WORD2", "Painkiller 200mg"}, {"WORD3", "Spain Souvenir"}};
+        for (String[] values : names) {
+            Product product = new Product();
+            product.setProductCode(values[0]);
+            product.setProductName(values[1]);
+            product.setCategoryCode("CAT001");
+            productRepository.insertIfAbsent(product);
+        }
+
+        // Same rule as the PostgreSQL tsvector search: any word, any order, words split at non-alphanumerics
+        assertThat(searchCodes("relief")).containsExactly("WORD1");
+        assertThat(searchCodes("gel pain")).containsExactly("WORD1");
+        assertThat(searchCodes("pain")).containsExactly("WORD1", "WORD2");
+        assertThat(searchCodes("200mg")).containsExactly("WORD2");
+        assertThat(searchCodes("ain")).isEmpty();
+    }
+
+    private List<String> searchCodes(String query) {
+        return productRepository.searchByName(query, PageRequest.of(0, 10)).getContent().stream()
+                .map(hit -> hit.product().getProductCode())
+                .toList();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.productservice.service;
+
+import com.example.productservice.config.CacheConfig;
+import com.example.productservice.entity.Category;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.CatalogChangedEvent;
+import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogCacheServiceTest {
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedLookupIsServedFromCache() {
+        Product saved = productRepository.save(newProduct("CACHE001"));
+        long hitsBefore = catalogCacheService.getStatistics().get(CacheConfig.PRODUCTS).hits();
+
+        productRepository.findById(saved.getId());
+        productRepository.findById(saved.getId());
+
+        assertThat(catalogCacheService.getStatistics().get(CacheConfig.PRODUCTS).hits())
+                .isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void testSaveEvictsCachedExistenceCheck() {
+        assertThat(productRepository.existsByProductCode("CACHE002")).isFalse();
+
+        productRepository.save(newProduct("CACHE002"));
+
+        assertThat(productRepository.existsByProductCode("CACHE002")).isTrue();
+    }
+
+    @Test
+    void testInsertEvictsOnlyOnceCommitted() {
+        Product product = newProduct("CACHE003");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productRepository.insertIfAbsent(product);
+            // A concurrent reader that does not see the uncommitted row yet caches it as missing
+            cacheManager.getCache(CacheConfig.PRODUCT_CODE_EXISTS).put("CACHE003", false);
+        });
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCT_CODE_EXISTS).get("CACHE003")).isNull();
+        assertThat(productRepository.existsByProductCode("CACHE003")).isTrue();
+    }
+
+    @Test
+    void testImportClearsProductCaches() throws IOException {
+        productRepository.existsByProductCode("0000000001");
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCT_CODE_EXISTS).get("0000000001")).isNotNull();
+
+        Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, """
+                PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME
+                0000000001,Product 01,1,1,Pain Relief
+                """);
+        csvImportService.importFromCsv(csvFile.toString());
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCT_CODE_EXISTS).get("0000000001")).isNull();
+        assertThat(productRepository.existsByProductCode("0000000001")).isTrue();
+    }
+
+    @Test
+    void testCategoryPagesAreServedFromQueryCacheUntilCategoriesChange() {
+        Category category = new Category();
+        category.setCategoryCode("L2CAT01");
+        category.setCategoryName("Second Level");
+        categoryRepository.save(category);
+
+        Pageable firstPage = PageRequest.of(0, 10);
+        categoryRepository.findAll(firstPage);
+        long hitsBefore = queryCacheHits();
+
+        assertThat(categoryRepository.findAll(firstPage).getContent()).hasSize(1);
+        assertThat(queryCacheHits()).isGreaterThan(hitsBefore);
+
+        // A JDBC insert bypasses Hibernate; the change event must evict the cached page
+        Category inserted = new Category();
+        inserted.setCategoryCode("L2CAT02");
+        inserted.setCategoryName("Inserted");
+        categoryRepository.insertIfAbsent(inserted);
+        eventPublisher.publishEvent(CatalogChangedEvent.categories());
+
+        assertThat(categoryRepository.findAll(firstPage).getContent()).hasSize(2);
+    }
+
+    private long queryCacheHits() {
+        return catalogCacheService.getSecondLevelStatistics().values().stream()
+                .mapToLong(CatalogCacheService.RegionStatistics::hits)
+                .sum();
+    }
+
+    private Product newProduct(String productCode) {
+        Product product = new Product();
+        product.setProductCode(productCode);
+        product.setProductName("Cached Product");
+        product.setCategoryCode("CAT001");
+        product.setCreationDate(LocalDateTime.now());
+        return product;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.productservice.service;
+
+import com.example.productservice.event.CatalogChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogVersionServiceTest {
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testInstancesSharingTheDatabaseAgreeOnTheVersion() {
+        // Two more instances of the service, as other nodes behind the load balancer would run them
+        CatalogVersionService node = new CatalogVersionService(jdbcTemplate, meterRegistry, Duration.ZERO);
+        CatalogVersionService otherNode = new CatalogVersionService(jdbcTemplate, meterRegistry, Duration.ZERO);
+        CatalogVersionService.Version before = node.current(CatalogChangedEvent.Table.PRODUCTS);
+        assertThat(otherNode.current(CatalogChangedEvent.Table.PRODUCTS)).isEqualTo(before);
+
+        otherNode.onCatalogChanged(CatalogChangedEvent.products());
+
+        CatalogVersionService.Version after = node.current(CatalogChangedEvent.Table.PRODUCTS);
+        assertThat(after.counter()).isEqualTo(before.counter() + 1);
+        assertThat(after.etag("json")).isNotEqualTo(before.etag("json"));
+        assertThat(otherNode.current(CatalogChangedEvent.Table.PRODUCTS)).isEqualTo(after);
+    }
+
+    @Test
+    void testVersionsAreServedFromMemoryUntilALocalCommit() {
+        CatalogVersionService node = new CatalogVersionService(jdbcTemplate, meterRegistry, Duration.ofHours(1));
+        CatalogVersionService.Version before = node.current(CatalogChangedEvent.Table.PRODUCTS);
+
+        // A write by another instance is not looked up before the refresh interval has passed
+        jdbcTemplate.update("UPDATE catalog_versions SET version = version + 1 WHERE table_name = 'PRODUCTS'");
+        assertThat(node.current(CatalogChangedEvent.Table.PRODUCTS)).isEqualTo(before);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            node.onCatalogChanged(CatalogChangedEvent.products());
+            assertThat(node.current(CatalogChangedEvent.Table.PRODUCTS)).isEqualTo(before);
+        });
+
+        assertThat(node.current(CatalogChangedEvent.Table.PRODUCTS).counter()).isEqualTo(before.counter() + 2);
+    }
+
+    @Test
+    void testRepeatedReadsLoadVersionsOncePerInterval() {
+        CatalogVersionService node = new CatalogVersionService(jdbcTemplate, meterRegistry, Duration.ofHours(1));
+        double loadsBefore = meterRegistry.counter("catalog.versions.loads").count();
+
+        for (int i = 0; i < 100; i++) {
+            node.combined(CatalogChangedEvent.Table.PRODUCTS, CatalogChangedEvent.Table.CATEGORIES);
+        }
+
+        assertThat(meterRegistry.counter("catalog.versions.loads").count() - loadsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void testTransactionBumpsEachTableOnce() {
+        CatalogVersionService node = new CatalogVersionService(jdbcTemplate, meterRegistry, Duration.ZERO);
+        CatalogVersionService.Version before = node.current(CatalogChangedEvent.Table.PRODUCTS);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            node.onCatalogChanged(CatalogChangedEvent.products());
+            node.onCatalogChanged(CatalogChangedEvent.products());
+        });
+        assertThat(node.current(CatalogChangedEvent.Table.PRODUCTS).counter()).isEqualTo(before.counter() + 1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            node.onCatalogChanged(CatalogChangedEvent.products());
+            status.setRollbackOnly();
+        });
+        assertThat(node.current(CatalogChangedEvent.Table.PRODUCTS).counter()).isEqualTo(before.counter() + 1);
+    }
+
+    @Test
+    void testCombinedVersionChangesWithEitherTable() {
+        CatalogVersionService.Version before = catalogVersionService.combined(
+                CatalogChangedEvent.Table.PRODUCTS, CatalogChangedEvent.Table.CATEGORIES);
+
+        catalogVersionService.onCatalogChanged(CatalogChangedEvent.categories());
+
+        CatalogVersionService.Version after = catalogVersionService.combined(
+                CatalogChangedEvent.Table.PRODUCTS, CatalogChangedEvent.Table.CATEGORIES);
+        assertThat(after.etag("json")).isNotEqualTo(before.etag("json"));
+        assertThat(after.lastModified()).isGreaterThanOrEqualTo(before.lastModified());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.ChangeFeed;
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.CategoryRepository;
+import com.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testBatchStopsBeforeFirstUnsettledRow() {
+        ChangeFeedService changeFeedService =
+                new ChangeFeedService(productRepository, categoryRepository, Duration.ofMinutes(1));
+        long settled = save("SETTLE01", LocalDateTime.now().minusHours(1));
+        save("SETTLE02", LocalDateTime.now());
+        // Settled, but its id is above a held-back row: it waits so the cursor cannot pass the held-back row
+        save("SETTLE03", LocalDateTime.now().minusHours(1));
+
+        ChangeFeed<Product> feed = changeFeedService.productChanges(0, 10);
+
+        assertThat(feed.items()).extracting(Product::getProductCode).containsExactly("SETTLE01");
+        assertThat(feed.nextCursor()).isEqualTo(settled);
+        assertThat(feed.hasMore()).isFalse();
+        assertThat(changeFeedService.productChanges(settled, 10).items()).isEmpty();
+    }
+
+    private long save(String productCode, LocalDateTime creationDate) {
+        Product product = new Product();
+        product.setProductCode(productCode);
+        product.setProductName("Feed " + productCode);
+        product.setCategoryCode("CAT001");
+        product.setCreationDate(creationDate);
+        return productRepository.save(product).getId();
+    }
+}
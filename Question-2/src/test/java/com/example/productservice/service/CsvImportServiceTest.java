@@ -1,14 +1,18 @@
 package com.example.productservice.service;
 
+import com.example.productservice.dto.CategoryStats;
 import com.example.productservice.entity.Category;
 import com.example.productservice.entity.Product;
+import com.example.productservice.repository.CategoryProductCountRepository;
 import com.example.productservice.repository.CategoryRepository;
 import com.example.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.io.IOException;
@@ -32,6 +36,15 @@ class CsvImportServiceTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryProductCountRepository categoryProductCountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @TempDir
     Path tempDir;
 
@@ -86,6 +99,9 @@ class CsvImportServiceTest {
 
         List<Product> products = productRepository.findAll();
         assertThat(products).hasSize(2);
+        assertThat(categoryProductCountRepository.findAllStats())
+                .extracting(CategoryStats::productCount)
+                .containsExactly(2L);
     }
 
     @Test
@@ -122,5 +138,176 @@ class CsvImportServiceTest {
         List<Product> products = productRepository.findAll();
         assertThat(products).hasSize(2);
     }
-}
 
+    @Test
+    void testReimportSkipsExistingCodesWithoutInserting() throws IOException {
+        String csvContent = """
+                PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME
+                0000000001,Product 01,1,1,Pain Relief
+                0000000002,Product 02,1,3,Digestive Health
+                """;
+        Path csvFile = Files.writeString(tempDir.resolve("reimport.csv"), csvContent);
+        csvImportService.importFromCsv(csvFile.toString());
+
+        // A conflicting insert would still draw an id from the PostgreSQL sequence, so none may be attempted
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        CsvImportService.ImportResult again;
+        List<String> statements;
+        try {
+            again = csvImportService.importFromCsv(csvFile.toString());
+            statements = jdbcTemplate.queryForList(
+                    "SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class);
+        } finally {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        }
+
+        assertThat(again.productsSkipped).isEqualTo(2);
+        assertThat(again.categoriesSkipped).isEqualTo(2);
+        assertThat(again.productsCreated + again.categoriesCreated).isZero();
+        assertThat(statements).noneMatch(sql -> sql.startsWith("INSERT INTO products")
+                || sql.startsWith("INSERT INTO categories"));
+    }
+
+    @Test
+    void testImportRecordsMetrics() throws IOException {
+        String csvContent = """
+                PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME
+                0000000001,Product 01,1,1,Pain Relief
+                0000000001,Product 01,1,1,Pain Relief
+                """;
+
+        Path csvFile = tempDir.resolve("test.csv");
+        Files.writeString(csvFile, csvContent);
+
+        double createdBefore = rowCount("product", "created");
+        double skippedBefore = rowCount("product", "skipped");
+        long importsBefore = meterRegistry.timer("catalog.import.duration").count();
+
+        csvImportService.importFromCsv(csvFile.toString());
+
+        assertThat(rowCount("product", "created") - createdBefore).isEqualTo(1);
+        assertThat(rowCount("product", "skipped") - skippedBefore).isEqualTo(1);
+        assertThat(meterRegistry.timer("catalog.import.duration").count()).isEqualTo(importsBefore + 1);
+        assertThat(meterRegistry.find("catalog.import.stage").tag("stage", "products").timer()).isNotNull();
+        assertThat(meterRegistry.find("catalog.import.throughput").summary()).isNotNull();
+    }
+
+    @Test
+    void testIncrementalImportSkipsUnchangedFile() throws IOException {
+        String csvContent = """
+                PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME
+                0000000001,Product 01,1,1,Pain Relief
+                0000000002,Product 02,1,3,Digestive Health
+                """;
+
+        Path csvFile = tempDir.resolve("unchanged.csv");
+        Files.writeString(csvFile, csvContent);
+
+        CsvImportService.ImportResult first = csvImportService.importFromCsv(csvFile.toString());
+        CsvImportService.ImportResult second = csvImportService.importIncremental(csvFile.toString());
+
+        assertThat(first.productsCreated).isEqualTo(2);
+        assertThat(second.fileUnchanged).isTrue();
+        assertThat(second.productsCreated + second.productsSkipped).isZero();
+    }
+
+    @Test
+    void testIncrementalImportProcessesOnlyChangedChunks() throws IOException {
+        int rows = 4 * CsvImportService.AVERAGE_CHUNK_ROWS;
+        StringBuilder head = new StringBuilder("PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME\n");
+        StringBuilder tail = new StringBuilder();
+        for (int i = 1; i <= rows; i++) {
+            (i <= rows / 2 ? head : tail).append(String.format("%010d,Product %d,1,1,Pain Relief%n", i, i));
+        }
+
+        Path csvFile = tempDir.resolve("chunked.csv");
+        Files.writeString(csvFile, head.toString() + tail);
+        CsvImportService.ImportResult first = csvImportService.importFromCsv(csvFile.toString());
+
+        // A row inserted mid-file changes only the chunk it falls into, not every chunk after it
+        Files.writeString(csvFile, head + "NEW0000001,New Product,1,1,Pain Relief\n" + tail);
+        CsvImportService.ImportResult second = csvImportService.importIncremental(csvFile.toString());
+
+        assertThat(first.productsCreated).isEqualTo(rows);
+        assertThat(second.fileUnchanged).isFalse();
+        assertThat(second.chunksSkipped).isGreaterThanOrEqualTo(2);
+        assertThat(second.productsCreated).isEqualTo(1);
+        assertThat(second.productsSkipped).isLessThan(rows / 2);
+        assertThat(productRepository.existsByProductCode("NEW0000001")).isTrue();
+    }
+
+    @Test
+    void testIncrementalImportRetriesRowsThatFailed() throws IOException {
+        String csvContent = """
+                PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME
+                0000000001,Product 01,1,1,Pain Relief
+                0000000002,Product 02,1,1,Pain Relief
+                """;
+        Path csvFile = Files.writeString(tempDir.resolve("failing.csv"), csvContent);
+
+        // The database rejects one row; the file itself stays the same
+        jdbcTemplate.execute("ALTER TABLE products ADD CONSTRAINT reject_test_row CHECK (product_code <> '0000000002')");
+        CsvImportService.ImportResult first;
+        try {
+            first = csvImportService.importIncremental(csvFile.toString());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE products DROP CONSTRAINT reject_test_row");
+        }
+        CsvImportService.ImportResult second = csvImportService.importIncremental(csvFile.toString());
+
+        assertThat(first.errors).isEqualTo(1);
+        assertThat(first.productsCreated).isEqualTo(1);
+        assertThat(second.fileUnchanged).isFalse();
+        assertThat(second.chunksSkipped).isZero();
+        assertThat(second.productsCreated).isEqualTo(1);
+        assertThat(second.errors).isZero();
+        assertThat(productRepository.existsByProductCode("0000000002")).isTrue();
+        assertThat(csvImportService.importIncremental(csvFile.toString()).fileUnchanged).isTrue();
+    }
+
+    @Test
+    void testIncrementalImportKeysFingerprintsByPath() throws IOException {
+        String csvContent = """
+                PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME
+                0000000001,Product 01,1,1,Pain Relief
+                """;
+        Path first = Files.writeString(Files.createDirectories(tempDir.resolve("a")).resolve("seed.csv"), csvContent);
+        Path second = Files.writeString(Files.createDirectories(tempDir.resolve("b")).resolve("seed.csv"), csvContent);
+
+        csvImportService.importIncremental(first.toString());
+
+        assertThat(csvImportService.importIncremental(second.toString()).fileUnchanged).isFalse();
+        assertThat(csvImportService.importIncremental(tempDir.resolve("a/../a/seed.csv").toString()).fileUnchanged)
+                .isTrue();
+    }
+
+    @Test
+    void testParallelParseMatchesStandardImport() throws IOException {
+        StringBuilder csv = new StringBuilder("PRODUCT_CODE,PRODUCT_NAME,PRODUCT_CATEGORY_CODE,CATEGORY_CODE,CATEGORY_NAME\n");
+        for (int i = 1; i <= 3_000; i++) {
+            // Every tenth row repeats the previous code with another name; the first occurrence must win
+            int code = i % 10 == 0 ? i - 1 : i;
+            csv.append(String.format("%010d,\"Product %d, row %d\",%d,%d,Category %d%n", code, code, i, code % 5, code % 5, code % 5));
+        }
+        Path csvFile = Files.writeString(tempDir.resolve("parallel.csv"), csv);
+
+        CsvImportService.ImportResult standard = csvImportService.importFromCsv(csvFile.toString());
+        List<String> standardNames = productRepository.findAll().stream().map(Product::getProductName).sorted().toList();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        CsvImportService.ImportResult parallel = csvImportService.importFromCsv(csvFile.toString(),
+                CsvImportService.ParseMode.PARALLEL);
+
+        assertThat(parallel.toString()).isEqualTo(standard.toString());
+        assertThat(parallel.productsCreated).isEqualTo(2_700);
+        assertThat(parallel.productsSkipped).isEqualTo(300);
+        assertThat(productRepository.findAll().stream().map(Product::getProductName).sorted().toList())
+                .isEqualTo(standardNames)
+                .contains("Product 9, row 9")
+                .doesNotContain("Product 9, row 10");
+    }
+
+    private double rowCount(String entity, String outcome) {
+        return meterRegistry.counter("catalog.import.rows", "entity", entity, "outcome", outcome).count();
+    }
+}
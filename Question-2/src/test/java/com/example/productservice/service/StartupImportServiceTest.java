@@ -0,0 +1,96 @@
+package com.example.productservice.service;
+
+import com.example.productservice.config.StartupImportConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.availability.ApplicationAvailabilityBean;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StartupImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadinessFlipsOnlyAfterBackgroundImportCompletes() throws Exception {
+        Path csvFile = Files.writeString(tempDir.resolve("seed.csv"), "PRODUCT_CODE\n");
+        CountDownLatch importStarted = new CountDownLatch(1);
+        CountDownLatch releaseImport = new CountDownLatch(1);
+
+        CsvImportService csvImportService = mock(CsvImportService.class);
+        when(csvImportService.importFromCsv(anyString(), any())).thenAnswer(invocation -> {
+            importStarted.countDown();
+            releaseImport.await(10, TimeUnit.SECONDS);
+            return new CsvImportService.ImportResult();
+        });
+
+        ApplicationAvailabilityBean[] availability = new ApplicationAvailabilityBean[1];
+        StartupImportService service = new StartupImportService(csvImportService,
+                event -> availability[0].onApplicationEvent((AvailabilityChangeEvent<?>) event),
+                csvFile.toString(), true, true, false, CsvImportService.ParseMode.STANDARD);
+        availability[0] = new StartupImportConfig(service).applicationAvailability();
+
+        service.start();
+        assertThat(importStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Spring Boot reports ready at the end of startup; the running import must still win
+        availability[0].onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        availability[0].onApplicationEvent(new AvailabilityChangeEvent<>(this, LivenessState.CORRECT));
+        assertThat(service.isImportInProgress()).isTrue();
+        assertThat(availability[0].getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+        assertThat(availability[0].getLivenessState()).isEqualTo(LivenessState.CORRECT);
+
+        releaseImport.countDown();
+        for (int i = 0; i < 100 && service.isImportInProgress(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(service.getStatus()).isEqualTo(StartupImportService.Status.COMPLETED);
+        assertThat(service.getResult()).isNotNull();
+        assertThat(availability[0].getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    void testMissingFileIsSkippedAndReady() {
+        CsvImportService csvImportService = mock(CsvImportService.class);
+        ApplicationAvailabilityBean[] availability = new ApplicationAvailabilityBean[1];
+        StartupImportService service = new StartupImportService(csvImportService,
+                event -> availability[0].onApplicationEvent((AvailabilityChangeEvent<?>) event),
+                tempDir.resolve("missing.csv").toString(), true, true, false, CsvImportService.ParseMode.STANDARD);
+        availability[0] = new StartupImportConfig(service).applicationAvailability();
+
+        service.start();
+
+        assertThat(service.getStatus()).isEqualTo(StartupImportService.Status.SKIPPED);
+        assertThat(service.isImportInProgress()).isFalse();
+        assertThat(availability[0].getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    void testImportNeverStartedDoesNotBlockReadiness() {
+        CsvImportService csvImportService = mock(CsvImportService.class);
+        StartupImportService service = new StartupImportService(csvImportService, event -> { },
+                tempDir.resolve("seed.csv").toString(), true, true, false, CsvImportService.ParseMode.STANDARD);
+        ApplicationAvailabilityBean availability = new StartupImportConfig(service).applicationAvailability();
+
+        // No runner calls start(): the status stays PENDING
+        availability.onApplicationEvent(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        assertThat(service.getStatus()).isEqualTo(StartupImportService.Status.PENDING);
+        assertThat(service.isImportInProgress()).isFalse();
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    }
+}
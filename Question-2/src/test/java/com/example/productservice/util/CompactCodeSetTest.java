@@ -0,0 +1,96 @@
+package com.example.productservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCodeSetTest {
+
+    @Test
+    void testAddReportsNewAndDuplicateCodes() {
+        CompactCodeSet codes = new CompactCodeSet(4);
+
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(codes.add(String.format("%010d", i))).isTrue();
+        }
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(codes.add(String.format("%010d", i))).isFalse();
+        }
+
+        assertThat(codes.size()).isEqualTo(50_000);
+        assertThat(codes.contains("0000049999")).isTrue();
+        assertThat(codes.contains("0000050000")).isFalse();
+    }
+
+    @Test
+    void testLeadingZerosKeepCodesDistinct() {
+        CompactCodeSet codes = new CompactCodeSet();
+
+        assertThat(codes.add("1")).isTrue();
+        assertThat(codes.add("01")).isTrue();
+        assertThat(codes.add("0000000001")).isTrue();
+        assertThat(codes.add("0")).isTrue();
+        assertThat(codes.add("00")).isTrue();
+
+        assertThat(codes.size()).isEqualTo(5);
+        assertThat(codes.contains("001")).isFalse();
+    }
+
+    @Test
+    void testNonNumericAndLongCodesFallBackToStrings() {
+        CompactCodeSet codes = new CompactCodeSet();
+
+        assertThat(codes.add("ABC-1")).isTrue();
+        assertThat(codes.add("ABC-1")).isFalse();
+        assertThat(codes.add("123456789012345678901")).isTrue();
+        assertThat(codes.add("")).isTrue();
+
+        assertThat(codes.contains("ABC-1")).isTrue();
+        assertThat(codes.contains("123456789012345678901")).isTrue();
+        assertThat(codes.contains("ABC-2")).isFalse();
+        assertThat(codes.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testBufferStartsSmallAndGrowsToItsLimit() {
+        CompactCodeSet codes = new CompactCodeSet();
+        int initialCapacity = codes.bufferCapacity();
+
+        for (int i = 0; i < 1_000; i++) {
+            codes.add(String.format("%010d", i));
+        }
+        assertThat(codes.bufferCapacity()).isEqualTo(initialCapacity).isLessThanOrEqualTo(2_048);
+
+        for (int i = 1_000; i < 200_000; i++) {
+            codes.add(String.format("%010d", i));
+        }
+        assertThat(codes.bufferCapacity()).isEqualTo(1 << 17);
+        assertThat(codes.size()).isEqualTo(200_000);
+        assertThat(codes.contains("0000000999")).isTrue();
+        assertThat(codes.contains("0000199999")).isTrue();
+    }
+
+    @Test
+    void testRandomCodesMatchAHashSetAcrossMerges() {
+        // A tiny buffer packs and merges runs many times over
+        CompactCodeSet codes = new CompactCodeSet(64);
+        Set<String> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            String code = String.format("%010d", (long) (random.nextDouble() * 5_000_000_000L));
+            assertThat(codes.add(code)).isEqualTo(expected.add(code));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            String code = String.format("%010d", (long) (random.nextDouble() * 5_000_000_000L));
+            assertThat(codes.contains(code)).isEqualTo(expected.contains(code));
+        }
+
+        assertThat(codes.size()).isEqualTo(expected.size());
+        assertThat(expected).allMatch(codes::contains);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.productservice.util;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelCsvReaderTest {
+
+    private static final ExecutorService EXECUTOR = ParallelCsvReader.newExecutor(4);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterAll
+    static void shutdownExecutor() {
+        EXECUTOR.shutdownNow();
+    }
+
+    @Test
+    void testMatchesCommonsCsvInFileOrder() throws IOException {
+        StringBuilder csv = new StringBuilder("PRODUCT_CODE,PRODUCT_NAME,CATEGORY_CODE,CATEGORY_NAME\r\n");
+        for (int i = 0; i < 2_000; i++) {
+            switch (i % 5) {
+                case 0 -> csv.append(String.format("%010d,\"Product, %d\",%d,\"Say \"\"hi\"\"\"\n", i, i, i % 7));
+                case 1 -> csv.append(String.format("%010d,Pröduct %d,%d,\r\n", i, i, i % 7));
+                case 2 -> csv.append(String.format("%010d,,%d,\"\"\n\n", i, i % 7));
+                default -> csv.append(String.format("%010d,Product %d,%d,Category %d\n", i, i, i % 7, i % 7));
+            }
+        }
+        Path file = Files.writeString(tempDir.resolve("catalog.csv"), csv.append("LAST,no newline,1,x"));
+
+        List<List<String>> expected = new ArrayList<>();
+        List<String> expectedHeader;
+        try (Reader reader = Files.newBufferedReader(file);
+             CSVParser parser = new CSVParser(reader, CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
+            expectedHeader = parser.getHeaderNames();
+            for (CSVRecord record : parser) {
+                expected.add(List.of(record.values()));
+            }
+        }
+
+        // Ranges of a few hundred bytes force many boundaries and out-of-order completion across threads
+        List<List<String>> actual = new ArrayList<>();
+        try (ParallelCsvReader reader = new ParallelCsvReader(file, EXECUTOR, 4, 300)) {
+            assertThat(reader.header()).isEqualTo(expectedHeader);
+            for (String[] record : reader) {
+                actual.add(List.of(record));
+            }
+        }
+
+        assertThat(actual).hasSize(2_001).isEqualTo(expected);
+    }
+
+    @Test
+    void testQuotedValueSpanningLinesIsRejected() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("multiline.csv"), "A,B\n1,\"two\nlines\"\n");
+
+        try (ParallelCsvReader reader = new ParallelCsvReader(file, EXECUTOR, 2)) {
+            assertThatThrownBy(() -> reader.forEach(record -> { }))
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasMessageContaining("unterminated quoted value");
+        }
+    }
+
+    @Test
+    void testHeaderOnlyFileHasNoRecords() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("empty.csv"), "A,B\n");
+
+        try (ParallelCsvReader reader = new ParallelCsvReader(file, EXECUTOR, 2)) {
+            assertThat(reader.header()).containsExactly("A", "B");
+            assertThat(reader.iterator().hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    void testCloseBeforeLastRecordLeavesSharedExecutorUsable() throws IOException {
+        StringBuilder csv = new StringBuilder("A,B\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append(i).append(",value ").append(i).append('\n');
+        }
+        Path file = Files.writeString(tempDir.resolve("large.csv"), csv);
+
+        try (ParallelCsvReader reader = new ParallelCsvReader(file, EXECUTOR, 4, 200)) {
+            assertThat(reader.iterator().next()).containsExactly("0", "value 0");
+        }
+
+        // Ranges still queued by the closed reader are skipped instead of failing on the closed channel
+        try (ParallelCsvReader reader = new ParallelCsvReader(file, EXECUTOR, 4, 200)) {
+            long records = 0;
+            for (String[] record : reader) {
+                records++;
+            }
+            assertThat(records).isEqualTo(5_000);
+        }
+    }
+}